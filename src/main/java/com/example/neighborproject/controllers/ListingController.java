@@ -0,0 +1,103 @@
+package com.example.neighborproject.controllers;
+
+import com.example.neighborproject.models.Listing;
+import com.example.neighborproject.models.ListingRequest;
+import com.example.neighborproject.services.ListingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Controller for changing individual listings without reloading the listings file.
+ */
+@RestController
+@RequestMapping("/listings")
+public class ListingController {
+
+    private static final Logger log = LoggerFactory.getLogger(ListingController.class);
+
+    @Autowired
+    private ListingService listingService;
+
+    /**
+     * Adds a listing under a newly generated id.
+     */
+    @PostMapping
+    public ResponseEntity<?> create(@RequestBody ListingRequest request) {
+        String error = validate(request);
+        if (error != null) {
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        Listing listing = toListing(UUID.randomUUID().toString(), request);
+        listingService.upsertListing(listing);
+
+        log.info("Added listing {} at location {}", listing.getId(), listing.getLocationId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(listing);
+    }
+
+    /**
+     * Adds or replaces the listing with the given id.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<?> upsert(@PathVariable String id, @RequestBody ListingRequest request) {
+        String error = validate(request);
+        if (error != null) {
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        Listing listing = toListing(id, request);
+        Optional<Listing> previous = listingService.upsertListing(listing);
+
+        log.info("{} listing {} at location {}",
+                previous.isPresent() ? "Updated" : "Added", id, listing.getLocationId());
+        return previous.isPresent()
+                ? ResponseEntity.ok(listing)
+                : ResponseEntity.status(HttpStatus.CREATED).body(listing);
+    }
+
+    /**
+     * Removes the listing with the given id.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> delete(@PathVariable String id) {
+        if (listingService.removeListing(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        log.info("Removed listing {}", id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private String validate(ListingRequest request) {
+        if (request == null) {
+            return "No listing provided in request";
+        }
+        if (request.getLocationId() == null || request.getLocationId().isBlank()) {
+            return "Listing locationId is required";
+        }
+        if (request.getLength() <= 0 || request.getWidth() <= 0) {
+            return "Listing length and width must be positive";
+        }
+        if (request.getPriceInCents() < 0) {
+            return "Listing price cannot be negative";
+        }
+        return null;
+    }
+
+    private Listing toListing(String id, ListingRequest request) {
+        Listing listing = new Listing();
+        listing.setId(id);
+        listing.setLength(request.getLength());
+        listing.setWidth(request.getWidth());
+        listing.setLocationId(request.getLocationId());
+        listing.setPriceInCents(request.getPriceInCents());
+        return listing;
+    }
+}
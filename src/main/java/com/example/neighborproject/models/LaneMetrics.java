@@ -0,0 +1,85 @@
+package com.example.neighborproject.models;
+
+/**
+ * Point-in-time view of one search lane's executor and queue.
+ */
+public class LaneMetrics {
+    private final String name;
+    private final int threads;
+    private final int activeTasks;
+    private final int queuedTasks;
+    private final int queueCapacity;
+    private final long completedTasks;
+    private final long rejectedTasks;
+    private final long overflowTasks;
+    private final long overflowTimeouts;
+    private final long averageQueueWaitMicros;
+
+    public LaneMetrics(String name,
+                       int threads,
+                       int activeTasks,
+                       int queuedTasks,
+                       int queueCapacity,
+                       long completedTasks,
+                       long rejectedTasks,
+                       long overflowTasks,
+                       long overflowTimeouts,
+                       long averageQueueWaitMicros) {
+        this.name = name;
+        this.threads = threads;
+        this.activeTasks = activeTasks;
+        this.queuedTasks = queuedTasks;
+        this.queueCapacity = queueCapacity;
+        this.completedTasks = completedTasks;
+        this.rejectedTasks = rejectedTasks;
+        this.overflowTasks = overflowTasks;
+        this.overflowTimeouts = overflowTimeouts;
+        this.averageQueueWaitMicros = averageQueueWaitMicros;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getActiveTasks() {
+        return activeTasks;
+    }
+
+    public int getQueuedTasks() {
+        return queuedTasks;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public long getCompletedTasks() {
+        return completedTasks;
+    }
+
+    public long getRejectedTasks() {
+        return rejectedTasks;
+    }
+
+    /**
+     * Tasks resubmitted after a rejection that got an overflow slot.
+     */
+    public long getOverflowTasks() {
+        return overflowTasks;
+    }
+
+    /**
+     * Resubmitted tasks that gave up waiting for an overflow slot.
+     */
+    public long getOverflowTimeouts() {
+        return overflowTimeouts;
+    }
+
+    public long getAverageQueueWaitMicros() {
+        return averageQueueWaitMicros;
+    }
+}
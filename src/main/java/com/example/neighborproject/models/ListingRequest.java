@@ -1,4 +1,51 @@
 package com.example.neighborproject.models;
 
+/**
+ * Payload for creating or updating a single listing.
+ */
 public class ListingRequest {
+    private int length;
+    private int width;
+    private String locationId;
+    private int priceInCents;
+
+    public ListingRequest() {}
+
+    public int getLength() {
+        return length;
+    }
+
+    public void setLength(int length) {
+        this.length = length;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public String getLocationId() {
+        return locationId;
+    }
+
+    public void setLocationId(String locationId) {
+        this.locationId = locationId;
+    }
+
+    public int getPriceInCents() {
+        return priceInCents;
+    }
+
+    public void setPriceInCents(int priceInCents) {
+        this.priceInCents = priceInCents;
+    }
+
+    @Override
+    public String toString() {
+        return "ListingRequest{length=" + length + ", width=" + width + ", locationId=" + locationId
+                + ", priceInCents=" + priceInCents + "}";
+    }
 }
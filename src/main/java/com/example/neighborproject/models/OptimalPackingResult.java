@@ -9,9 +9,17 @@ public class OptimalPackingResult {
     private final List<String> usedListingIds;
     private final int totalPrice;
 
+    // Price removed from the initial greedy answer by local search (0 when not improved)
+    private final int savedPrice;
+
     public OptimalPackingResult(List<String> usedListingIds, int totalPrice) {
+        this(usedListingIds, totalPrice, 0);
+    }
+
+    public OptimalPackingResult(List<String> usedListingIds, int totalPrice, int savedPrice) {
         this.usedListingIds = usedListingIds;
         this.totalPrice = totalPrice;
+        this.savedPrice = savedPrice;
     }
 
     public List<String> getUsedListingIds() {
@@ -21,4 +29,8 @@ public class OptimalPackingResult {
     public int getTotalPrice() {
         return totalPrice;
     }
-}
\ No newline at end of file
+
+    public int getSavedPrice() {
+        return savedPrice;
+    }
+}
@@ -2,19 +2,25 @@ package com.example.neighborproject.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import java.util.Arrays;
+
 /**
  * Represents a grid for spatial allocation of vehicles.
  * Used for determining if vehicles can be placed in a space.
+ * The backing cells are kept across {@link #reset(int, int)} calls so a grid
+ * can be reused for listings of different sizes without reallocating.
  */
 public class PackingGrid {
-    private final int length;
-    private final int width;
-    private final boolean[][] occupied;
+    private int length;
+    private int width;
+
+    // Row-major cells, sized for the largest grid this instance has held
+    private boolean[] occupied;
 
     public PackingGrid(int length, int width) {
+        this.occupied = new boolean[length * width];
         this.length = length;
         this.width = width;
-        this.occupied = new boolean[length][width];
     }
 
     public int getLength() {
@@ -25,6 +31,21 @@ public class PackingGrid {
         return width;
     }
 
+    /**
+     * Clears the grid and resizes it, growing the backing cells only when needed
+     */
+    public void reset(int length, int width) {
+        int cells = length * width;
+        if (cells > occupied.length) {
+            occupied = new boolean[cells];
+        } else {
+            Arrays.fill(occupied, 0, cells, false);
+        }
+
+        this.length = length;
+        this.width = width;
+    }
+
     /**
      * Checks if an area is available for placement
      */
@@ -34,8 +55,9 @@ public class PackingGrid {
         }
 
         for (int i = x; i < x + itemLength; i++) {
+            int row = i * width;
             for (int j = y; j < y + itemWidth; j++) {
-                if (occupied[i][j]) {
+                if (occupied[row + j]) {
                     return false;
                 }
             }
@@ -49,8 +71,9 @@ public class PackingGrid {
      */
     public void place(int x, int y, int itemLength, int itemWidth) {
         for (int i = x; i < x + itemLength; i++) {
+            int row = i * width;
             for (int j = y; j < y + itemWidth; j++) {
-                occupied[i][j] = true;
+                occupied[row + j] = true;
             }
         }
     }
@@ -63,14 +86,12 @@ public class PackingGrid {
         int totalCells = length * width;
         int occupiedCells = 0;
 
-        for (int i = 0; i < length; i++) {
-            for (int j = 0; j < width; j++) {
-                if (occupied[i][j]) {
-                    occupiedCells++;
-                }
+        for (int i = 0; i < totalCells; i++) {
+            if (occupied[i]) {
+                occupiedCells++;
             }
         }
 
         return (double) occupiedCells / totalCells;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package com.example.neighborproject.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stack of reusable packing grids.
+ * Callers remember {@link #size()} before acquiring grids and hand it back to
+ * {@link #release(int)} when done, so nested users share one pool safely.
+ * Not thread-safe; intended to be held per thread.
+ */
+public class PackingGridPool {
+    private final List<PackingGrid> grids = new ArrayList<>();
+    private int size = 0;
+
+    /**
+     * Returns a cleared grid of the given size, reusing a pooled one when available
+     */
+    public PackingGrid acquire(int length, int width) {
+        PackingGrid grid;
+        if (size < grids.size()) {
+            grid = grids.get(size);
+            grid.reset(length, width);
+        } else {
+            grid = new PackingGrid(length, width);
+            grids.add(grid);
+        }
+
+        size++;
+        return grid;
+    }
+
+    public PackingGrid get(int index) {
+        return grids.get(index);
+    }
+
+    /**
+     * Number of grids currently handed out
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns every grid acquired after the given mark to the pool
+     */
+    public void release(int mark) {
+        size = mark;
+    }
+}
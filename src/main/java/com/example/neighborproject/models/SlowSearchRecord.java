@@ -0,0 +1,88 @@
+package com.example.neighborproject.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A captured slow search, stored as one JSON line in the slow-search log.
+ * The listings it ran against are identified by the loaded file's hash and the
+ * number of listing writes applied on top of it.
+ */
+// Older captures carry an in-memory snapshot counter that is no longer recorded
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SlowSearchRecord {
+    private long capturedAt;
+    private String listingsFileHash;
+    private long listingWritesSinceLoad;
+    private List<VehicleRequest> request;
+    private long totalMicros;
+
+    // Slowest locations first, in microseconds
+    private Map<String, Long> locationMicros;
+
+    public SlowSearchRecord() {}
+
+    public SlowSearchRecord(long capturedAt,
+                            String listingsFileHash,
+                            long listingWritesSinceLoad,
+                            List<VehicleRequest> request,
+                            long totalMicros,
+                            Map<String, Long> locationMicros) {
+        this.capturedAt = capturedAt;
+        this.listingsFileHash = listingsFileHash;
+        this.listingWritesSinceLoad = listingWritesSinceLoad;
+        this.request = request;
+        this.totalMicros = totalMicros;
+        this.locationMicros = locationMicros;
+    }
+
+    public long getCapturedAt() {
+        return capturedAt;
+    }
+
+    public void setCapturedAt(long capturedAt) {
+        this.capturedAt = capturedAt;
+    }
+
+    public String getListingsFileHash() {
+        return listingsFileHash;
+    }
+
+    public void setListingsFileHash(String listingsFileHash) {
+        this.listingsFileHash = listingsFileHash;
+    }
+
+    public long getListingWritesSinceLoad() {
+        return listingWritesSinceLoad;
+    }
+
+    public void setListingWritesSinceLoad(long listingWritesSinceLoad) {
+        this.listingWritesSinceLoad = listingWritesSinceLoad;
+    }
+
+    public List<VehicleRequest> getRequest() {
+        return request;
+    }
+
+    public void setRequest(List<VehicleRequest> request) {
+        this.request = request;
+    }
+
+    public long getTotalMicros() {
+        return totalMicros;
+    }
+
+    public void setTotalMicros(long totalMicros) {
+        this.totalMicros = totalMicros;
+    }
+
+    public Map<String, Long> getLocationMicros() {
+        return locationMicros;
+    }
+
+    public void setLocationMicros(Map<String, Long> locationMicros) {
+        this.locationMicros = locationMicros;
+    }
+}
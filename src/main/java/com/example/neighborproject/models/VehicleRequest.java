@@ -1,5 +1,7 @@
 package com.example.neighborproject.models;
 
+import java.util.Objects;
+
 public class VehicleRequest {
     private int length;
     private int quantity;
@@ -28,6 +30,23 @@ public class VehicleRequest {
         this.quantity = quantity;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof VehicleRequest)) {
+            return false;
+        }
+        VehicleRequest other = (VehicleRequest) o;
+        return length == other.length && quantity == other.quantity;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(length, quantity);
+    }
+
     @Override
     public String toString() {
         return "VehicleRequest{length=" + length + ", quantity=" + quantity + "}";
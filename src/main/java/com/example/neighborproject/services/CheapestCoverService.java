@@ -0,0 +1,395 @@
+package com.example.neighborproject.services;
+
+import com.example.neighborproject.models.Listing;
+import com.example.neighborproject.models.NormalizedVehicle;
+import com.example.neighborproject.models.OptimalPackingResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Service finding the cheapest set of listings at a location that covers a whole fleet.
+ *
+ * <p>Listings are grouped by shape. For each shape, the vehicle mixes a single listing can
+ * hold are enumerated once with the grid packer, keeping only maximal mixes. A dynamic
+ * program over "vehicles still to place" states then picks, listing by listing in price
+ * order within each shape, which mix each listing takes (if any). States, choice-table
+ * cells and total work are bounded so runtime and memory stay predictable. Work is bounded
+ * per location and across all locations of a request, and checked against a lower bound
+ * before any enumeration; callers fall back to greedy packing when a solve exceeds it.
+ */
+@Service
+public class CheapestCoverService {
+
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    // Choice table entry for a listing left unused
+    private static final short SKIP = -1;
+
+    private static final ThreadLocal<CoverScratch> SCRATCH = ThreadLocal.withInitial(CoverScratch::new);
+
+    @Autowired
+    private VehiclePlacementService placementService;
+
+    // Maximum remaining-demand states (product of quantity + 1 over vehicle types)
+    @Value("${placement.cover.max-states:20000}")
+    private int maxStates;
+
+    // Maximum choice-table size (listings considered x states)
+    @Value("${placement.cover.max-cells:1000000}")
+    private int maxCells;
+
+    // Maximum work per location: mix enumeration plus DP (states x mixes x vehicle types per listing)
+    @Value("${placement.cover.max-operations:2000000}")
+    private long maxOperations;
+
+    // Maximum work per request, shared by all of its locations
+    @Value("${placement.cover.max-request-operations:5000000}")
+    private long maxRequestOperations;
+
+    /**
+     * Prepares the per-request demand shared by every location's solve.
+     */
+    public CoverDemand newDemand(List<NormalizedVehicle> vehicles) {
+        return new CoverDemand(vehicles, maxStates, maxRequestOperations);
+    }
+
+    /**
+     * Cheapest listings covering the whole fleet. The result is infeasible when no listing
+     * combination holds the fleet, and gave up when the request exceeds the solver's bounds.
+     */
+    public CoverResult findCheapestCover(List<Listing> listings, CoverDemand coverDemand) {
+        int typeCount = coverDemand.getTypes().size();
+        if (typeCount == 0 || coverDemand.isTooLarge()) {
+            return CoverResult.gaveUp();
+        }
+
+        // Group by shape, leaving out listings too small for any single vehicle; within a
+        // shape only the cheapest listings can be worth using, and never more of them than
+        // there are vehicles
+        Map<Integer, List<Listing>> listingsByShape = new LinkedHashMap<>();
+        for (Listing listing : listings) {
+            if (holdsAnyVehicle(listing, coverDemand)) {
+                listingsByShape.computeIfAbsent(shapeKey(listing), key -> new ArrayList<>()).add(listing);
+            }
+        }
+
+        // No listing here can hold even one of the vehicles
+        if (listingsByShape.isEmpty()) {
+            return CoverResult.infeasible();
+        }
+
+        // Other locations of the request may already have spent the shared budget
+        long budget = Math.min(maxOperations, coverDemand.getRemainingOperations());
+
+        // Every listing kept holds at least one mix, so each costs at least one DP step per
+        // state; checked before enumerating anything
+        int states = coverDemand.getStateCount();
+        int maxUseful = coverDemand.getTotalVehicles();
+        long layerCount = 0;
+        for (List<Listing> shapeListings : listingsByShape.values()) {
+            layerCount += Math.min(shapeListings.size(), maxUseful);
+        }
+        if (layerCount * states > maxCells || layerCount * states * typeCount > budget) {
+            return CoverResult.gaveUp();
+        }
+
+        CoverScratch scratch = SCRATCH.get();
+        List<Listing> layers = new ArrayList<>();
+        List<int[][]> layerPatterns = new ArrayList<>();
+        long operations = 0;
+        long dpOperations = 0;
+
+        for (Map.Entry<Integer, List<Listing>> entry : listingsByShape.entrySet()) {
+            int[][] patterns = coverDemand.getPatternsByShape().get(entry.getKey());
+            if (patterns == null) {
+                // Enumerated outside the map so solves for other shapes never wait on this one
+                Listing sample = entry.getValue().get(0);
+                patterns = enumeratePatterns(sample.getLength() / 10, sample.getWidth() / 10,
+                        coverDemand, scratch, budget - operations - dpOperations);
+                operations += scratch.operations;
+                coverDemand.charge(scratch.operations);
+                if (patterns == null) {
+                    return CoverResult.gaveUp();
+                }
+
+                int[][] existing = coverDemand.getPatternsByShape().putIfAbsent(entry.getKey(), patterns);
+                if (existing != null) {
+                    patterns = existing;
+                }
+            }
+            if (patterns.length == 0) {
+                continue;
+            }
+            if (patterns.length > Short.MAX_VALUE) {
+                return CoverResult.gaveUp();
+            }
+
+            List<Listing> shapeListings = entry.getValue();
+            shapeListings.sort(Comparator.comparingInt(Listing::getPriceInCents));
+            for (int i = 0; i < shapeListings.size() && i < maxUseful; i++) {
+                layers.add(shapeListings.get(i));
+                layerPatterns.add(patterns);
+                dpOperations += (long) states * patterns.length * typeCount;
+            }
+
+            if (operations + dpOperations > budget) {
+                return CoverResult.gaveUp();
+            }
+        }
+
+        if (layers.isEmpty()) {
+            return CoverResult.infeasible();
+        }
+
+        // Other locations may have drawn on the request budget while this one enumerated
+        if (!coverDemand.tryReserve(dpOperations)) {
+            return CoverResult.gaveUp();
+        }
+
+        int[] strides = coverDemand.getStrides();
+        int[] digits = coverDemand.getDigits();
+        int fullState = states - 1;
+
+        scratch.ensureCapacity(states, layers.size() * states);
+        short[] choice = scratch.choice;
+
+        // Rolling rows of cost[j][s], the cheapest way to place remaining state s using
+        // listings j onwards; choice[j * states + s] keeps the mix listing j takes there
+        int[] next = scratch.next;
+        int[] current = scratch.current;
+        Arrays.fill(next, 0, states, UNREACHABLE);
+        next[0] = 0;
+
+        for (int j = layers.size() - 1; j >= 0; j--) {
+            int price = layers.get(j).getPriceInCents();
+            int[][] patterns = layerPatterns.get(j);
+            int row = j * states;
+
+            for (int s = 0; s < states; s++) {
+                int best = next[s];
+                short bestChoice = SKIP;
+
+                // Taking this listing costs at least its price, so only try mixes when that can win
+                if (price < best) {
+                    for (int p = 0; p < patterns.length; p++) {
+                        int rest = next[remainingAfter(s, patterns[p], digits, strides)];
+                        if (rest != UNREACHABLE && price + rest < best) {
+                            best = price + rest;
+                            bestChoice = (short) p;
+                        }
+                    }
+                }
+                current[s] = best;
+                choice[row + s] = bestChoice;
+            }
+
+            int[] swap = next;
+            next = current;
+            current = swap;
+        }
+
+        // After the last swap, next holds the row for the first listing
+        int totalPrice = next[fullState];
+        if (totalPrice == UNREACHABLE) {
+            return CoverResult.infeasible();
+        }
+
+        // Walk forward from the full fleet, taking each listing whose recorded choice was a mix
+        List<String> usedListingIds = new ArrayList<>();
+        int state = fullState;
+
+        for (int j = 0; j < layers.size() && state != 0; j++) {
+            short taken = choice[j * states + state];
+            if (taken != SKIP) {
+                usedListingIds.add(layers.get(j).getId());
+                state = remainingAfter(state, layerPatterns.get(j)[taken], digits, strides);
+            }
+        }
+
+        return CoverResult.found(new OptimalPackingResult(usedListingIds, totalPrice));
+    }
+
+    /**
+     * State left after a listing holding {@code pattern} takes what it can from {@code state}.
+     */
+    private int remainingAfter(int state, int[] pattern, int[] digits, int[] strides) {
+        int remaining = state;
+        int base = state * pattern.length;
+        for (int i = 0; i < pattern.length; i++) {
+            remaining -= Math.min(digits[base + i], pattern[i]) * strides[i];
+        }
+        return remaining;
+    }
+
+    /**
+     * Every maximal vehicle mix (count per type, up to the demand) that fits one empty
+     * listing of this shape, or null once enumeration passes the operation limit.
+     * Fitting is checked with the same grid packer used elsewhere, adding types largest
+     * first and stopping a type's count at its first failure. Each packer call is charged
+     * one operation per grid cell per vehicle it places; the total is left in the scratch.
+     */
+    private int[][] enumeratePatterns(int gridLength,
+                                      int gridWidth,
+                                      CoverDemand coverDemand,
+                                      CoverScratch scratch,
+                                      long operationLimit) {
+        int states = coverDemand.getStateCount();
+        int[] demand = coverDemand.getDemand();
+        int[] strides = coverDemand.getStrides();
+
+        scratch.ensureEnumerationCapacity(states, demand.length);
+        Arrays.fill(scratch.feasible, 0, states, false);
+        scratch.feasibleCount = 0;
+        scratch.operations = 0;
+        scratch.operationLimit = operationLimit;
+
+        if (!enumerate(0, 0, 0, 0, gridLength, gridWidth, coverDemand, scratch)) {
+            return null;
+        }
+
+        // Keep mixes that cannot take one more vehicle of any type
+        List<int[]> maximal = new ArrayList<>();
+        for (int f = 0; f < scratch.feasibleCount; f++) {
+            int code = scratch.feasibleCodes[f];
+            if (code == 0) {
+                continue;
+            }
+
+            boolean extendable = false;
+            for (int i = 0; i < demand.length && !extendable; i++) {
+                if ((code / strides[i]) % (demand[i] + 1) < demand[i]) {
+                    extendable = scratch.feasible[code + strides[i]];
+                }
+            }
+
+            if (!extendable) {
+                int[] counts = new int[demand.length];
+                for (int i = 0; i < demand.length; i++) {
+                    counts[i] = (code / strides[i]) % (demand[i] + 1);
+                }
+                maximal.add(counts);
+            }
+        }
+
+        return maximal.toArray(new int[0][]);
+    }
+
+    /**
+     * Depth-first over the count of each type, recording feasible mixes by state code.
+     * Returns false once the operation limit is passed.
+     */
+    private boolean enumerate(int type,
+                              int code,
+                              int area,
+                              int vehicles,
+                              int gridLength,
+                              int gridWidth,
+                              CoverDemand coverDemand,
+                              CoverScratch scratch) {
+        int[] demand = coverDemand.getDemand();
+        int[] counts = scratch.counts;
+
+        if (type == demand.length) {
+            scratch.feasible[code] = true;
+            scratch.feasibleCodes[scratch.feasibleCount++] = code;
+            return true;
+        }
+
+        int cells = gridLength * gridWidth;
+        int typeArea = coverDemand.getTypes().get(type).getArea();
+        int stride = coverDemand.getStrides()[type];
+
+        for (int count = 0; count <= demand[type]; count++) {
+            counts[type] = count;
+            if (count > 0) {
+                // Area alone rules the mix out without running the packer
+                if (area + count * typeArea > cells) {
+                    break;
+                }
+
+                scratch.operations += (long) cells * (vehicles + count);
+                if (scratch.operations > scratch.operationLimit) {
+                    counts[type] = 0;
+                    return false;
+                }
+                if (!fits(gridLength, gridWidth, coverDemand, scratch, type)) {
+                    break;
+                }
+            }
+
+            if (!enumerate(type + 1, code + count * stride, area + count * typeArea, vehicles + count,
+                    gridLength, gridWidth, coverDemand, scratch)) {
+                counts[type] = 0;
+                return false;
+            }
+        }
+        counts[type] = 0;
+        return true;
+    }
+
+    private boolean fits(int gridLength, int gridWidth, CoverDemand coverDemand, CoverScratch scratch, int lastType) {
+        List<NormalizedVehicle> mix = scratch.mix;
+        mix.clear();
+        for (int i = 0; i <= lastType; i++) {
+            if (scratch.counts[i] > 0) {
+                mix.add(coverDemand.getVehicle(i, scratch.counts[i]));
+            }
+        }
+
+        return placementService.canFitAllVehicles(gridLength, gridWidth, mix);
+    }
+
+    private boolean holdsAnyVehicle(Listing listing, CoverDemand coverDemand) {
+        for (NormalizedVehicle type : coverDemand.getTypes()) {
+            if (placementService.fitsEmptyListing(listing.getLength() / 10, listing.getWidth() / 10, type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int shapeKey(Listing listing) {
+        return (listing.getLength() / 10) << 16 | (listing.getWidth() / 10);
+    }
+
+    /**
+     * Per-thread DP rows, choice table and mix enumeration buffers, grown to the largest solve seen.
+     */
+    private static final class CoverScratch {
+        private int[] next = new int[0];
+        private int[] current = new int[0];
+        private short[] choice = new short[0];
+
+        private boolean[] feasible = new boolean[0];
+        private int[] feasibleCodes = new int[0];
+        private int feasibleCount;
+        private int[] counts = new int[0];
+        private final List<NormalizedVehicle> mix = new ArrayList<>();
+
+        private long operations;
+        private long operationLimit;
+
+        private void ensureCapacity(int states, int cells) {
+            if (next.length < states) {
+                next = new int[states];
+                current = new int[states];
+            }
+            if (choice.length < cells) {
+                choice = new short[cells];
+            }
+        }
+
+        private void ensureEnumerationCapacity(int states, int typeCount) {
+            if (feasible.length < states) {
+                feasible = new boolean[states];
+                feasibleCodes = new int[states];
+            }
+            if (counts.length < typeCount) {
+                counts = new int[typeCount];
+            }
+        }
+    }
+}
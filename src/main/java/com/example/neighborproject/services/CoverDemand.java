@@ -0,0 +1,181 @@
+package com.example.neighborproject.services;
+
+import com.example.neighborproject.models.NormalizedVehicle;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-request input to {@link CheapestCoverService}: the fleet merged into vehicle types,
+ * the mixed-radix encoding of "vehicles still to place" states, and the vehicle mixes
+ * each listing shape can hold. Shapes repeat across locations, so each shape's mixes
+ * are computed once per request and shared, as is the solver work budget every location
+ * draws from. Fleets with more states than the solver allows are marked too large instead
+ * of being encoded.
+ */
+public class CoverDemand {
+    private final List<NormalizedVehicle> types;
+    private final int[] demand;
+    private final int[] strides;
+    private final int stateCount;
+    private final boolean tooLarge;
+
+    // digits[state * types + type]: vehicles of that type still to place in the state
+    private final int[] digits;
+
+    // vehiclesByCount[type][count]: the type with that quantity, prebuilt for the packer
+    private final NormalizedVehicle[][] vehiclesByCount;
+
+    private final Map<Integer, int[][]> patternsByShape = new ConcurrentHashMap<>();
+
+    // Solver work left for the whole request, drawn down by every location's solve
+    private final AtomicLong remainingOperations;
+
+    public CoverDemand(List<NormalizedVehicle> vehicles, int maxStates, long maxOperations) {
+        this.remainingOperations = new AtomicLong(maxOperations);
+
+        // Merge entries of the same size into one type, largest vehicles first
+        Map<List<Integer>, Integer> quantities = new LinkedHashMap<>();
+        for (NormalizedVehicle vehicle : vehicles) {
+            if (vehicle.getQuantity() > 0) {
+                quantities.merge(List.of(vehicle.getLength(), vehicle.getWidth()), vehicle.getQuantity(), Integer::sum);
+            }
+        }
+
+        List<NormalizedVehicle> merged = new ArrayList<>();
+        for (Map.Entry<List<Integer>, Integer> entry : quantities.entrySet()) {
+            int length = entry.getKey().get(0);
+            int width = entry.getKey().get(1);
+            merged.add(new NormalizedVehicle(length, width, entry.getValue(), length * width));
+        }
+        merged.sort(Comparator.comparingInt(NormalizedVehicle::getArea).reversed());
+
+        this.types = Collections.unmodifiableList(merged);
+        this.demand = new int[merged.size()];
+        this.strides = new int[merged.size()];
+
+        // Stop multiplying as soon as the bound is passed, so the product never overflows
+        long states = 1;
+        boolean exceeded = false;
+        for (int i = 0; i < merged.size(); i++) {
+            demand[i] = merged.get(i).getQuantity();
+            if (!exceeded) {
+                strides[i] = (int) states;
+                states *= demand[i] + 1L;
+                exceeded = states > maxStates;
+            }
+        }
+        this.tooLarge = exceeded;
+        this.stateCount = exceeded ? 0 : (int) states;
+
+        this.digits = new int[stateCount * merged.size()];
+        for (int state = 0; state < stateCount; state++) {
+            for (int i = 0; i < merged.size(); i++) {
+                digits[state * merged.size() + i] = (state / strides[i]) % (demand[i] + 1);
+            }
+        }
+
+        // Bounded by the state count, so only built for fleets the solver will take
+        this.vehiclesByCount = new NormalizedVehicle[exceeded ? 0 : merged.size()][];
+        for (int i = 0; i < vehiclesByCount.length; i++) {
+            NormalizedVehicle type = merged.get(i);
+            vehiclesByCount[i] = new NormalizedVehicle[demand[i] + 1];
+            for (int count = 1; count <= demand[i]; count++) {
+                vehiclesByCount[i][count] = new NormalizedVehicle(type.getLength(), type.getWidth(), count, type.getArea());
+            }
+        }
+    }
+
+    public List<NormalizedVehicle> getTypes() {
+        return types;
+    }
+
+    public int[] getDemand() {
+        return demand;
+    }
+
+    public int[] getStrides() {
+        return strides;
+    }
+
+    /**
+     * Number of distinct remaining-demand states, from 0 (all placed) to the full fleet.
+     * Zero when the fleet is too large to encode.
+     */
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    /**
+     * Per-state vehicle counts by type, so the solver never divides to decode a state.
+     */
+    int[] getDigits() {
+        return digits;
+    }
+
+    /**
+     * Whether the fleet has more states than the solver allows.
+     */
+    public boolean isTooLarge() {
+        return tooLarge;
+    }
+
+    /**
+     * Grid cells the whole fleet occupies.
+     */
+    public long getTotalArea() {
+        long area = 0;
+        for (NormalizedVehicle type : types) {
+            area += (long) type.getArea() * type.getQuantity();
+        }
+        return area;
+    }
+
+    /**
+     * Vehicle type {@code type} with the given quantity, shared so packer checks do not allocate.
+     */
+    NormalizedVehicle getVehicle(int type, int quantity) {
+        return vehiclesByCount[type][quantity];
+    }
+
+    public int getTotalVehicles() {
+        int total = 0;
+        for (int count : demand) {
+            total += count;
+        }
+        return total;
+    }
+
+    Map<Integer, int[][]> getPatternsByShape() {
+        return patternsByShape;
+    }
+
+    /**
+     * Solver work left for this request; zero or less once it has been spent.
+     */
+    public long getRemainingOperations() {
+        return remainingOperations.get();
+    }
+
+    /**
+     * Records work already done against the request budget, even if it overdraws it.
+     */
+    void charge(long operations) {
+        remainingOperations.addAndGet(-operations);
+    }
+
+    /**
+     * Takes work from the request budget only if all of it is still available.
+     */
+    boolean tryReserve(long operations) {
+        long remaining;
+        do {
+            remaining = remainingOperations.get();
+            if (remaining < operations) {
+                return false;
+            }
+        } while (!remainingOperations.compareAndSet(remaining, remaining - operations));
+        return true;
+    }
+}
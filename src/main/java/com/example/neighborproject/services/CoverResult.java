@@ -0,0 +1,51 @@
+package com.example.neighborproject.services;
+
+import com.example.neighborproject.models.OptimalPackingResult;
+
+/**
+ * Outcome of a {@link CheapestCoverService} solve for one location. Only a solve that
+ * gave up on its bounds should fall back to greedy packing; an infeasible outcome means
+ * no combination of the location's listings can hold the fleet.
+ */
+public final class CoverResult {
+
+    public enum Status {
+        FOUND,
+        INFEASIBLE,
+        GAVE_UP
+    }
+
+    private static final CoverResult INFEASIBLE = new CoverResult(Status.INFEASIBLE, null);
+    private static final CoverResult GAVE_UP = new CoverResult(Status.GAVE_UP, null);
+
+    private final Status status;
+    private final OptimalPackingResult packing;
+
+    private CoverResult(Status status, OptimalPackingResult packing) {
+        this.status = status;
+        this.packing = packing;
+    }
+
+    static CoverResult found(OptimalPackingResult packing) {
+        return new CoverResult(Status.FOUND, packing);
+    }
+
+    static CoverResult infeasible() {
+        return INFEASIBLE;
+    }
+
+    static CoverResult gaveUp() {
+        return GAVE_UP;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * The cheapest cover, or null unless the status is {@link Status#FOUND}.
+     */
+    public OptimalPackingResult getPacking() {
+        return packing;
+    }
+}
@@ -13,13 +13,24 @@ import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 /**
  * Service responsible for managing space listings data.
  * Handles loading, caching, and providing access to listing information.
+ * Each location's listings are kept as an immutable price-sorted list that writers
+ * replace wholesale (copy-on-write), so readers never see a partially updated location.
+ * Writers hold the write lock across every location they touch and the version bump,
+ * so a full-map read never sees a moved listing in both locations or in neither.
+ * A reload reads and indexes the file without the lock and only swaps the new maps in under it.
  */
 @Service
 public class ListingService {
@@ -28,8 +39,18 @@ public class ListingService {
     @Value("${listings.file.path:#{systemProperties['user.dir'] + '/listings.json'}}")
     private String listingsFilePath;
 
-    private final Map<String, List<Listing>> listingsByLocation = new ConcurrentHashMap<>();
-    private final Map<String, Listing> listingsById = new ConcurrentHashMap<>();
+    // Replaced as a whole on reload, so readers see either the old or the new listings
+    private volatile Map<String, List<Listing>> listingsByLocation = new ConcurrentHashMap<>();
+    private volatile Map<String, Listing> listingsById = new ConcurrentHashMap<>();
+
+    // Bumped whenever the listings change, so results computed on older data can be told apart
+    private final AtomicLong snapshotVersion = new AtomicLong();
+
+    // Identify the listings content across restarts: the loaded file plus the writes made since
+    private volatile String listingsFileHash = "";
+    private final AtomicLong writesSinceLoad = new AtomicLong();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
     private final ObjectMapper objectMapper = new ObjectMapper()
             .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
@@ -40,15 +61,21 @@ public class ListingService {
         loadListings();
     }
 
+    /**
+     * Replaces every listing with the contents of the listings file.
+     * Writes made while the file is being read are discarded by the swap.
+     */
     public void loadListings() {
         try {
             File file = new File(listingsFilePath);
             log.info("Loading listings from {}", file.getAbsolutePath());
 
-            List<Listing> listings = objectMapper.readValue(file, new TypeReference<List<Listing>>() {});
+            byte[] content = Files.readAllBytes(file.toPath());
+            List<Listing> listings = objectMapper.readValue(content, new TypeReference<List<Listing>>() {});
+            String fileHash = sha256(content);
 
-            listingsByLocation.clear();
-            listingsById.clear();
+            Map<String, List<Listing>> loadedByLocation = new ConcurrentHashMap<>();
+            Map<String, Listing> loadedById = new ConcurrentHashMap<>();
 
             Map<String, List<Listing>> tempListingsByLocation = listings.stream()
                     .collect(Collectors.groupingBy(Listing::getLocationId));
@@ -57,17 +84,28 @@ public class ListingService {
             for (Map.Entry<String, List<Listing>> entry : tempListingsByLocation.entrySet()) {
                 List<Listing> sortedListings = entry.getValue().stream()
                         .sorted(Comparator.comparingInt(Listing::getPriceInCents))
-                        .collect(Collectors.toList());
+                        .collect(Collectors.toUnmodifiableList());
 
-                listingsByLocation.put(entry.getKey(), sortedListings);
+                loadedByLocation.put(entry.getKey(), sortedListings);
             }
 
             for (Listing listing : listings) {
-                listingsById.put(listing.getId(), listing);
+                loadedById.put(listing.getId(), listing);
+            }
+
+            lock.writeLock().lock();
+            try {
+                listingsByLocation = loadedByLocation;
+                listingsById = loadedById;
+                listingsFileHash = fileHash;
+                writesSinceLoad.set(0);
+                snapshotVersion.incrementAndGet();
+            } finally {
+                lock.writeLock().unlock();
             }
 
             log.info("Successfully loaded {} listings across {} locations",
-                    listings.size(), listingsByLocation.size());
+                    listings.size(), loadedByLocation.size());
 
         } catch (IOException e) {
             log.error("Failed to load listings: {}", e.getMessage(), e);
@@ -76,9 +114,140 @@ public class ListingService {
     }
 
 
+    /**
+     * Adds a listing, or replaces the listing with the same id.
+     * Only the affected locations' lists are copied; a listing moving between
+     * locations leaves the old one and joins the new one under the same write lock.
+     *
+     * @return the previous listing with this id, if any
+     */
+    public Optional<Listing> upsertListing(Listing listing) {
+        lock.writeLock().lock();
+        try {
+            return upsert(listing);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Optional<Listing> upsert(Listing listing) {
+        Listing previous = listingsById.get(listing.getId());
+
+        List<Listing> target = new ArrayList<>(
+                listingsByLocation.getOrDefault(listing.getLocationId(), Collections.emptyList()));
+        if (previous != null && previous.getLocationId().equals(listing.getLocationId())) {
+            target.removeIf(existing -> existing.getId().equals(listing.getId()));
+        }
+        target.add(insertionIndex(target, listing.getPriceInCents()), listing);
+
+        listingsByLocation.put(listing.getLocationId(), Collections.unmodifiableList(target));
+        listingsById.put(listing.getId(), listing);
+
+        if (previous != null && !previous.getLocationId().equals(listing.getLocationId())) {
+            removeFromLocation(previous);
+        }
+
+        writesSinceLoad.incrementAndGet();
+        snapshotVersion.incrementAndGet();
+        return Optional.ofNullable(previous);
+    }
+
+    /**
+     * Removes a listing, copying only its location's list.
+     *
+     * @return the removed listing, if one existed
+     */
+    public Optional<Listing> removeListing(String id) {
+        lock.writeLock().lock();
+        try {
+            Listing removed = listingsById.remove(id);
+            if (removed == null) {
+                return Optional.empty();
+            }
+
+            removeFromLocation(removed);
+
+            writesSinceLoad.incrementAndGet();
+            snapshotVersion.incrementAndGet();
+            return Optional.of(removed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeFromLocation(Listing listing) {
+        List<Listing> current = listingsByLocation.get(listing.getLocationId());
+        if (current == null) {
+            return;
+        }
+
+        List<Listing> remaining = new ArrayList<>(current);
+        remaining.removeIf(existing -> existing.getId().equals(listing.getId()));
+
+        if (remaining.isEmpty()) {
+            listingsByLocation.remove(listing.getLocationId());
+        } else {
+            listingsByLocation.put(listing.getLocationId(), Collections.unmodifiableList(remaining));
+        }
+    }
+
+    /**
+     * Position after every listing priced at or below the given price,
+     * keeping equal prices in insertion order like the stable sort on load.
+     */
+    private int insertionIndex(List<Listing> sortedListings, int priceInCents) {
+        int low = 0;
+        int high = sortedListings.size();
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedListings.get(mid).getPriceInCents() <= priceInCents) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+
+    public long getSnapshotVersion() {
+        return snapshotVersion.get();
+    }
+
+    /**
+     * SHA-256 of the listings file as last loaded, in hex. Unlike the snapshot version,
+     * it identifies the same listings across restarts and machines.
+     */
+    public String getListingsFileHash() {
+        return listingsFileHash;
+    }
+
+    /**
+     * Listing upserts and removals applied on top of the loaded file.
+     */
+    public long getWritesSinceLoad() {
+        return writesSinceLoad.get();
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+
     @Cacheable("listingsByLocation")
     public Map<String, List<Listing>> getListingsByLocation() {
-        return new HashMap<>(listingsByLocation);
+        lock.readLock().lock();
+        try {
+            return new HashMap<>(listingsByLocation);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
 
@@ -0,0 +1,106 @@
+package com.example.neighborproject.services;
+
+import com.example.neighborproject.models.SearchResponse;
+import com.example.neighborproject.models.VehicleRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service coalescing identical concurrent searches into a single computation.
+ * The first caller for a canonical vehicle list and listings snapshot runs the search;
+ * callers arriving while it is in flight wait for and share its result or its failure.
+ */
+@Service
+public class SearchCoalescingService {
+    private static final Logger log = LoggerFactory.getLogger(SearchCoalescingService.class);
+
+    @Autowired
+    private ListingService listingService;
+
+    @Autowired
+    private SpaceSearchService searchService;
+
+    // How long a coalesced caller waits for the in-flight search before giving up
+    @Value("${search.coalescing.timeout-ms:10000}")
+    private long timeoutMs;
+
+    private final Map<SearchKey, CompletableFuture<List<SearchResponse>>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder coalescedSearches = new LongAdder();
+
+    /**
+     * Runs the search, or joins an identical one already in flight.
+     *
+     * @throws TimeoutException if this caller joined an in-flight search that did not finish in time
+     * @throws SearchUnavailableException if this caller was interrupted while waiting
+     */
+    public List<SearchResponse> search(List<VehicleRequest> vehicles) throws TimeoutException {
+        SearchKey key = new SearchKey(listingService.getSnapshotVersion(), searchService.canonicalize(vehicles));
+
+        CompletableFuture<List<SearchResponse>> leader = new CompletableFuture<>();
+        CompletableFuture<List<SearchResponse>> existing = inFlight.putIfAbsent(key, leader);
+
+        if (existing == null) {
+            try {
+                List<SearchResponse> results = Collections.unmodifiableList(searchService.search(vehicles));
+                leader.complete(results);
+                return results;
+            } catch (RuntimeException | Error e) {
+                leader.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, leader);
+            }
+        }
+
+        coalescedSearches.increment();
+        log.debug("Joining in-flight search for {}", key);
+
+        try {
+            // Timing out only abandons this caller's wait; nothing is registered on the shared future
+            return existing.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            // Keep the interrupt visible to the caller's thread, but report it as an unchecked failure
+            Thread.currentThread().interrupt();
+            throw new SearchUnavailableException("Interrupted while waiting for an in-flight search", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Coalesced search failed", cause);
+        }
+    }
+
+    /**
+     * Number of searches served by joining another caller's computation.
+     */
+    public long getCoalescedSearchCount() {
+        return coalescedSearches.sum();
+    }
+
+    /**
+     * Number of distinct searches currently being computed.
+     */
+    public int getInFlightSearchCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Identity of a search: the listings snapshot it runs against and its canonical vehicle list.
+     */
+    private record SearchKey(long snapshotVersion, List<VehicleRequest> canonicalVehicles) {
+    }
+}
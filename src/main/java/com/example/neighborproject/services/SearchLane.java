@@ -0,0 +1,131 @@
+package com.example.neighborproject.services;
+
+import com.example.neighborproject.models.LaneMetrics;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded executor for one stage of the search pipeline.
+ * At most threads + queue capacity tasks are admitted at once: {@link #submit} rejects
+ * tasks beyond that so the caller decides where they run. Work resubmitted after a
+ * rejection goes through {@link #submitWhenAvailable}, which waits in arrival order for
+ * one of a separate set of overflow slots (one per thread) that new submissions cannot
+ * take, and gives up after a timeout. Queue depth and wait times are tracked for
+ * {@link LaneMetrics}.
+ */
+public class SearchLane {
+    private final String name;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+
+    // One permit per task running or queued; released when the task finishes
+    private final Semaphore capacity;
+
+    // Slots reserved for resubmitted work; fair so waiters cannot be overtaken
+    private final Semaphore overflowCapacity;
+
+    private final LongAdder startedTasks = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder rejectedTasks = new LongAdder();
+    private final LongAdder overflowTasks = new LongAdder();
+    private final LongAdder overflowTimeouts = new LongAdder();
+
+    public SearchLane(String name, int threads, int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        this.capacity = new Semaphore(threads + queueCapacity);
+        this.overflowCapacity = new Semaphore(threads, true);
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                // Admission is bounded by the semaphore, so the queue itself never fills
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name + "-lane-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Queues the task on this lane.
+     *
+     * @throws RejectedExecutionException if the lane's queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        if (!capacity.tryAcquire()) {
+            rejectedTasks.increment();
+            throw new RejectedExecutionException(name + " lane is full");
+        }
+
+        return execute(task, capacity);
+    }
+
+    /**
+     * Queues work this lane rejected earlier, waiting up to the timeout for an overflow slot.
+     *
+     * @throws TimeoutException if no overflow slot freed up in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public <T> CompletableFuture<T> submitWhenAvailable(Supplier<T> task, long timeout, TimeUnit unit)
+            throws TimeoutException, InterruptedException {
+        if (!overflowCapacity.tryAcquire(timeout, unit)) {
+            overflowTimeouts.increment();
+            throw new TimeoutException(name + " lane had no overflow slot within " + unit.toMillis(timeout) + " ms");
+        }
+        overflowTasks.increment();
+
+        return execute(task, overflowCapacity);
+    }
+
+    private <T> CompletableFuture<T> execute(Supplier<T> task, Semaphore slots) {
+        long enqueuedAt = System.nanoTime();
+
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    queueWaitNanos.add(System.nanoTime() - enqueuedAt);
+                    startedTasks.increment();
+                    return task.get();
+                } finally {
+                    slots.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            // Only reached once the lane is shut down
+            slots.release();
+            rejectedTasks.increment();
+            throw e;
+        }
+    }
+
+    public LaneMetrics getMetrics() {
+        long started = startedTasks.sum();
+
+        return new LaneMetrics(
+                name,
+                executor.getMaximumPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                queueCapacity,
+                executor.getCompletedTaskCount(),
+                rejectedTasks.sum(),
+                overflowTasks.sum(),
+                overflowTimeouts.sum(),
+                started == 0 ? 0 : queueWaitNanos.sum() / started / 1_000L
+        );
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.neighborproject.services;
+
+/**
+ * Thrown when a search cannot be served right now, such as when the caller is
+ * interrupted while waiting or the search lanes stay full. Mapped to 503 by the controller.
+ */
+public class SearchUnavailableException extends RuntimeException {
+
+    public SearchUnavailableException(String message) {
+        super(message);
+    }
+
+    public SearchUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.neighborproject.services;
+
+import com.example.neighborproject.models.SlowSearchRecord;
+import com.example.neighborproject.models.VehicleRequest;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Service warming up the JIT and listing caches before the application reports ready.
+ * Runs once the listings are loaded and replays representative searches through
+ * {@link SpaceSearchService}. Spring Boot only switches readiness to ACCEPTING_TRAFFIC
+ * after all application runners return, so readiness waits for warm-up to finish
+ * or for its time budget to run out.
+ */
+@Service
+public class SearchWarmupService implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(SearchWarmupService.class);
+
+    // Representative fleets used when no recorded request log is configured
+    private static final List<List<VehicleRequest>> DEFAULT_REQUESTS = List.of(
+            List.of(new VehicleRequest(10, 1)),
+            List.of(new VehicleRequest(25, 1)),
+            List.of(new VehicleRequest(20, 1), new VehicleRequest(10, 2)),
+            List.of(new VehicleRequest(10, 1), new VehicleRequest(20, 2), new VehicleRequest(25, 1)),
+            List.of(new VehicleRequest(40, 3), new VehicleRequest(10, 4)),
+            List.of(new VehicleRequest(30, 6), new VehicleRequest(20, 5))
+    );
+
+    @Autowired
+    private ListingService listingService;
+
+    @Autowired
+    private SpaceSearchService searchService;
+
+    @Value("${search.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.warmup.iterations:20}")
+    private int iterations;
+
+    @Value("${search.warmup.time-budget-ms:30000}")
+    private long timeBudgetMs;
+
+    // Optional JSON lines file, one vehicle request array or slow-search record per line
+    @Value("${search.warmup.requests-file:}")
+    private String requestsFilePath;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        List<List<VehicleRequest>> requests = loadRequests();
+        long start = System.nanoTime();
+        long deadline = start + timeBudgetMs * 1_000_000L;
+        int searches = 0;
+
+        // Pre-fill listing lookups before the first search touches them
+        listingService.getListingsByLocation();
+
+        warmup:
+        for (int i = 0; i < iterations; i++) {
+            for (List<VehicleRequest> request : requests) {
+                if (System.nanoTime() >= deadline) {
+                    log.warn("Warm-up time budget of {} ms ran out after {} searches", timeBudgetMs, searches);
+                    break warmup;
+                }
+
+                try {
+                    searchService.search(request);
+                } catch (Exception e) {
+                    log.warn("Warm-up search failed for {}: {}", request, e.getMessage());
+                }
+                searches++;
+            }
+        }
+
+        log.info("Warm-up replayed {} searches in {} ms",
+                searches, (System.nanoTime() - start) / 1_000_000L);
+    }
+
+    private List<List<VehicleRequest>> loadRequests() {
+        if (requestsFilePath == null || requestsFilePath.isBlank()) {
+            return DEFAULT_REQUESTS;
+        }
+
+        File file = new File(requestsFilePath);
+        List<List<VehicleRequest>> requests = new ArrayList<>();
+
+        try {
+            for (String line : Files.readAllLines(file.toPath())) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (line.trim().startsWith("{")) {
+                    requests.add(objectMapper.readValue(line, SlowSearchRecord.class).getRequest());
+                } else {
+                    requests.add(objectMapper.readValue(line, new TypeReference<List<VehicleRequest>>() {}));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read warm-up requests from {}, using defaults: {}",
+                    file.getAbsolutePath(), e.getMessage());
+            return DEFAULT_REQUESTS;
+        }
+
+        log.info("Loaded {} warm-up requests from {}", requests.size(), file.getAbsolutePath());
+        return requests.isEmpty() ? DEFAULT_REQUESTS : requests;
+    }
+}
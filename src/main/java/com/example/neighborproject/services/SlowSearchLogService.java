@@ -0,0 +1,150 @@
+package com.example.neighborproject.services;
+
+import com.example.neighborproject.models.SlowSearchRecord;
+import com.example.neighborproject.models.VehicleRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service capturing searches slower than a threshold to a JSON lines file,
+ * together with the canonical request, the listings snapshot version and the
+ * slowest locations. Captures can be re-run offline with SlowSearchReplayTool.
+ * Searches before the application is ready (startup warm-up) are not captured.
+ * Records wait for the writer in a bounded queue; when it is full they are dropped and counted.
+ */
+@Service
+public class SlowSearchLogService {
+    private static final Logger log = LoggerFactory.getLogger(SlowSearchLogService.class);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${search.slow-log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.slow-log.threshold-ms:500}")
+    private long thresholdMs;
+
+    @Value("${search.slow-log.path:slow-searches.jsonl}")
+    private String path;
+
+    // Only the slowest locations are kept to keep each line compact
+    @Value("${search.slow-log.max-locations:20}")
+    private int maxLocations;
+
+    @Value("${search.slow-log.queue-capacity:100}")
+    private int queueCapacity;
+
+    private volatile boolean ready = false;
+
+    private final LongAdder droppedRecords = new LongAdder();
+
+    // Writes happen off the request thread
+    private ThreadPoolExecutor writer;
+
+    @PostConstruct
+    public void initialize() {
+        writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "slow-search-log"),
+                (runnable, executor) -> droppedRecords.increment());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ready = true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Let queued records reach the file before the writer thread stops
+        writer.shutdown();
+    }
+
+    /**
+     * Whether a search taking this long would be captured, so callers can
+     * skip building the record for the common fast case.
+     */
+    public boolean isSlow(long totalNanos) {
+        return enabled && ready && totalNanos >= thresholdMs * 1_000_000L;
+    }
+
+    public void recordIfSlow(List<VehicleRequest> canonicalRequest,
+                             String listingsFileHash,
+                             long listingWritesSinceLoad,
+                             long totalNanos,
+                             Map<String, Long> locationNanos) {
+        if (!isSlow(totalNanos)) {
+            return;
+        }
+
+        Map<String, Long> slowestLocations = new LinkedHashMap<>();
+        locationNanos.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(maxLocations)
+                .forEach(entry -> slowestLocations.put(entry.getKey(), entry.getValue() / 1_000L));
+
+        SlowSearchRecord record = new SlowSearchRecord(
+                System.currentTimeMillis(),
+                listingsFileHash,
+                listingWritesSinceLoad,
+                canonicalRequest,
+                totalNanos / 1_000L,
+                slowestLocations
+        );
+
+        log.warn("Slow search took {} ms for {}", totalNanos / 1_000_000L, canonicalRequest);
+        writer.execute(() -> append(record));
+    }
+
+    /**
+     * Number of slow searches dropped because the writer queue was full.
+     */
+    public long getDroppedRecordCount() {
+        return droppedRecords.sum();
+    }
+
+    private void append(SlowSearchRecord record) {
+        try {
+            Files.writeString(Path.of(path),
+                    objectMapper.writeValueAsString(record) + System.lineSeparator(),
+                    StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.error("Failed to write slow search to {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads every captured search from a slow-search log file.
+     */
+    public static List<SlowSearchRecord> readRecords(File file) throws IOException {
+        List<SlowSearchRecord> records = new ArrayList<>();
+
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            if (!line.isBlank()) {
+                records.add(objectMapper.readValue(line, SlowSearchRecord.class));
+            }
+        }
+
+        return records;
+    }
+}
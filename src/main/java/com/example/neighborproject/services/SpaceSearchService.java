@@ -0,0 +1,402 @@
+package com.example.neighborproject.services;
+
+import com.example.neighborproject.models.*;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Service running a vehicle space search across every location.
+ * Uses optimized bin packing algorithms to find the most cost-effective
+ * solutions for storing vehicles in available spaces.
+ *
+ * <p>The search runs as a two-stage pipeline: every location first goes through the
+ * fast lane (single-space check), and only locations without a single-space answer
+ * move on to the heavy lane (multi-space packing), which has its own concurrency cap,
+ * so large fleets cannot occupy the workers that quick checks need.
+ */
+@Service
+public class SpaceSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SpaceSearchService.class);
+
+    @Autowired
+    private ListingService listingService;
+
+    @Autowired
+    private VehiclePlacementService placementService;
+
+    @Autowired
+    private SlowSearchLogService slowSearchLog;
+
+    @Autowired
+    private CheapestCoverService coverService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 0 means one thread per available processor
+    @Value("${search.fast-lane.threads:0}")
+    private int fastLaneThreads;
+
+    @Value("${search.fast-lane.queue-capacity:10000}")
+    private int fastLaneQueueCapacity;
+
+    // 0 means half of the available processors
+    @Value("${search.heavy-lane.threads:0}")
+    private int heavyLaneThreads;
+
+    @Value("${search.heavy-lane.queue-capacity:1000}")
+    private int heavyLaneQueueCapacity;
+
+    // How long a request waits for each heavy-lane overflow slot before failing with 503
+    @Value("${search.heavy-lane.overflow-timeout-ms:5000}")
+    private long heavyLaneOverflowTimeoutMs;
+
+    private SearchLane fastLane;
+    private SearchLane heavyLane;
+
+    // Price removed by local search per request, for tuning placement.improvement.time-limit-ms.
+    // Locations answered by the cheapest-cover solver skip local search and add nothing.
+    private DistributionSummary localSearchSavings;
+
+    @PostConstruct
+    public void initialize() {
+        int processors = Runtime.getRuntime().availableProcessors();
+
+        fastLane = new SearchLane("fast",
+                fastLaneThreads > 0 ? fastLaneThreads : processors, fastLaneQueueCapacity);
+        heavyLane = new SearchLane("heavy",
+                heavyLaneThreads > 0 ? heavyLaneThreads : Math.max(1, processors / 2), heavyLaneQueueCapacity);
+
+        localSearchSavings = DistributionSummary.builder("search.local_search.saved")
+                .description("Price removed by local search from greedy multi-space packings, per search; "
+                        + "locations solved by the cheapest-cover solver are not included")
+                .baseUnit("cents")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fastLane.shutdown();
+        heavyLane.shutdown();
+    }
+
+    public List<LaneMetrics> getLaneMetrics() {
+        return List.of(fastLane.getMetrics(), heavyLane.getMetrics());
+    }
+
+    /**
+     * Finds the cheapest placement for the vehicles at every location.
+     *
+     * @param vehicles List of vehicles with their dimensions and quantities
+     * @return List of search responses sorted by price
+     */
+    public List<SearchResponse> search(List<VehicleRequest> vehicles) {
+        String listingsFileHash = listingService.getListingsFileHash();
+        long listingWrites = listingService.getWritesSinceLoad();
+        Map<String, Long> locationNanos = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+
+        List<SearchResponse> results = search(vehicles, locationNanos);
+
+        // Checked first so fast searches skip canonicalizing the request
+        long elapsedNanos = System.nanoTime() - start;
+        if (slowSearchLog.isSlow(elapsedNanos)) {
+            slowSearchLog.recordIfSlow(canonicalize(vehicles), listingsFileHash, listingWrites,
+                    elapsedNanos, locationNanos);
+        }
+        return results;
+    }
+
+    /**
+     * Same as {@link #search(List)} without slow-search capture,
+     * recording how long each location took to solve.
+     *
+     * @param locationNanos Filled with solve time in nanoseconds per location id
+     */
+    public List<SearchResponse> search(List<VehicleRequest> vehicles, Map<String, Long> locationNanos) {
+        // Normalize all vehicle dimensions
+        List<NormalizedVehicle> normalizedVehicles = normalizeVehicles(vehicles);
+
+        // Individual units for multi-space allocation, shared by every location
+        List<NormalizedVehicle> individualVehicles = expandVehicleList(normalizedVehicles);
+
+        // Vehicle mixes per listing shape, shared by every location
+        CoverDemand coverDemand = coverService.newDemand(normalizedVehicles);
+
+        // Get all available locations
+        Map<String, List<Listing>> locationListings = listingService.getListingsByLocation();
+
+        // Price removed by local search across all locations of this request
+        LongAdder savedPrice = new LongAdder();
+
+        // Locations whose heavy-lane work was rejected, resubmitted once the lane has room
+        Queue<Map.Entry<String, List<Listing>>> overflow = new ConcurrentLinkedQueue<>();
+
+        // Process each location in parallel for better performance
+        List<CompletableFuture<SearchResponse>> futures = new ArrayList<>();
+
+        for (Map.Entry<String, List<Listing>> entry : locationListings.entrySet()) {
+            String locationId = entry.getKey();
+            List<Listing> locationSpaces = entry.getValue();
+
+            Supplier<SearchResponse> fastStage = () -> timed(locationId, locationNanos, () ->
+                    solveSingleSpace(locationId, locationSpaces, normalizedVehicles));
+            Supplier<SearchResponse> heavyStage = () -> timed(locationId, locationNanos, () ->
+                    solveMultipleSpaces(locationId, locationSpaces, individualVehicles, coverDemand, savedPrice));
+
+            CompletableFuture<SearchResponse> fast;
+            try {
+                fast = fastLane.submit(fastStage);
+            } catch (RejectedExecutionException e) {
+                fast = CompletableFuture.completedFuture(fastStage.get());
+            }
+
+            CompletableFuture<SearchResponse> future = fast.thenCompose(single -> {
+                if (single != null) {
+                    return CompletableFuture.completedFuture(single);
+                }
+
+                try {
+                    return heavyLane.submit(heavyStage);
+                } catch (RejectedExecutionException e) {
+                    // Keep the fast lane free: the request thread resubmits this location after joining
+                    overflow.add(entry);
+                    return CompletableFuture.completedFuture(null);
+                }
+            });
+
+            futures.add(future);
+        }
+
+        List<SearchResponse> solved = futures.stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        // Overflow waits for the heavy lane's reserved slots, so it is capped at the lane's
+        // size instead of running on every request thread that hit a full queue
+        List<CompletableFuture<SearchResponse>> overflowFutures = new ArrayList<>();
+        try {
+            for (Map.Entry<String, List<Listing>> entry : overflow) {
+                overflowFutures.add(heavyLane.submitWhenAvailable(() -> timed(entry.getKey(), locationNanos, () ->
+                        solveMultipleSpaces(entry.getKey(), entry.getValue(), individualVehicles, coverDemand, savedPrice)),
+                        heavyLaneOverflowTimeoutMs, TimeUnit.MILLISECONDS));
+            }
+        } catch (TimeoutException e) {
+            throw new SearchUnavailableException("Heavy lane stayed full", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SearchUnavailableException("Interrupted while waiting for the heavy lane", e);
+        }
+
+        overflowFutures.stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .forEach(solved::add);
+
+        List<SearchResponse> results = solved.stream()
+                .sorted(Comparator.comparingInt(SearchResponse::getTotalPriceInCents))
+                .collect(Collectors.toList());
+
+        localSearchSavings.record(savedPrice.sum());
+        log.debug("Local search saved {} cents across locations for {}", savedPrice.sum(), vehicles);
+
+        return results;
+    }
+
+
+    /**
+     * Canonical form of a request: one entry per vehicle length, sorted by length,
+     * with quantities merged. Requests with the same canonical form produce the same results.
+     */
+    public List<VehicleRequest> canonicalize(List<VehicleRequest> vehicles) {
+        Map<Integer, Integer> quantitiesByLength = new TreeMap<>();
+
+        for (VehicleRequest req : vehicles) {
+            // Non-positive quantities place nothing
+            if (req.getQuantity() > 0) {
+                quantitiesByLength.merge(req.getLength(), req.getQuantity(), Integer::sum);
+            }
+        }
+
+        List<VehicleRequest> canonical = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : quantitiesByLength.entrySet()) {
+            canonical.add(new VehicleRequest(entry.getKey(), entry.getValue()));
+        }
+
+        return canonical;
+    }
+
+
+    private List<NormalizedVehicle> normalizeVehicles(List<VehicleRequest> vehicles) {
+        List<NormalizedVehicle> result = new ArrayList<>();
+
+        for (VehicleRequest req : vehicles) {
+            // Convert to normalized grid units
+            int normalizedLength = req.getLength() / 10;
+            int normalizedWidth = Math.max(1, 1/ 10);
+
+            result.add(new NormalizedVehicle(
+                    normalizedLength,
+                    normalizedWidth,
+                    req.getQuantity(),
+                    normalizedLength * normalizedWidth
+            ));
+        }
+
+        result.sort(Comparator.comparingInt(NormalizedVehicle::getArea).reversed());
+        return result;
+    }
+
+    /**
+     * Fast lane stage: the cheapest single listing holding every vehicle, or null.
+     */
+    private SearchResponse solveSingleSpace(String locationId,
+                                            List<Listing> availableListings,
+                                            List<NormalizedVehicle> vehicles) {
+        try {
+            return trySingleSpaceSolution(locationId, availableListings, vehicles);
+        } catch (Exception e) {
+            log.error("Error finding single-space solution for location {}", locationId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Heavy lane stage: vehicles spread across several listings, or null.
+     */
+    private SearchResponse solveMultipleSpaces(String locationId,
+                                               List<Listing> availableListings,
+                                               List<NormalizedVehicle> individualVehicles,
+                                               CoverDemand coverDemand,
+                                               LongAdder savedPrice) {
+        try {
+            return tryMultipleSpaceSolution(locationId, availableListings, individualVehicles, coverDemand, savedPrice);
+        } catch (Exception e) {
+            log.error("Error finding multi-space solution for location {}", locationId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Runs a stage and adds its duration to the location's solve time.
+     */
+    private SearchResponse timed(String locationId, Map<String, Long> locationNanos, Supplier<SearchResponse> stage) {
+        long start = System.nanoTime();
+        try {
+            return stage.get();
+        } finally {
+            locationNanos.merge(locationId, System.nanoTime() - start, Long::sum);
+        }
+    }
+
+    /**
+     * Attempt to fit all vehicles into a single space (optimal for cost).
+     * Listings arrive sorted by price from {@link ListingService}, so the first fit is the cheapest.
+     */
+    private SearchResponse trySingleSpaceSolution(String locationId,
+                                                  List<Listing> listings,
+                                                  List<NormalizedVehicle> vehicles) {
+        for (int i = 0; i < listings.size(); i++) {
+            Listing listing = listings.get(i);
+            if (placementService.canFitAllVehicles(listing, vehicles)) {
+                return new SearchResponse(
+                        locationId,
+                        Collections.singletonList(listing.getId()),
+                        listing.getPriceInCents()
+                );
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Attempt to distribute vehicles across multiple spaces when a single space won't work.
+     * Solves the cheapest cover over listing shapes when the fleet is within the solver's
+     * bounds; otherwise packs greedily and improves the answer with local search while time allows.
+     * Locations with less total area than the fleet, or that the solver proved cannot hold it,
+     * are skipped without the greedy fallback.
+     */
+    private SearchResponse tryMultipleSpaceSolution(String locationId,
+                                                    List<Listing> listings,
+                                                    List<NormalizedVehicle> individualVehicles,
+                                                    CoverDemand coverDemand,
+                                                    LongAdder savedPrice) {
+        long locationArea = 0;
+        for (Listing listing : listings) {
+            locationArea += (long) (listing.getLength() / 10) * (listing.getWidth() / 10);
+        }
+        if (locationArea < coverDemand.getTotalArea()) {
+            return null;
+        }
+
+        CoverResult cover = coverService.findCheapestCover(listings, coverDemand);
+        if (cover.getStatus() == CoverResult.Status.INFEASIBLE) {
+            return null;
+        }
+
+        OptimalPackingResult result = cover.getPacking();
+
+        if (cover.getStatus() == CoverResult.Status.GAVE_UP) {
+            List<Listing> sortedListings = new ArrayList<>(listings);
+            sortedListings.sort(Comparator.comparingDouble(
+                    l -> (double) l.getPriceInCents() / (l.getLength() * l.getWidth() / 100)
+            ));
+
+            result = placementService.findOptimalPacking(sortedListings, individualVehicles);
+            result = placementService.improvePacking(sortedListings, individualVehicles, result);
+        }
+
+        if (result != null && !result.getUsedListingIds().isEmpty()) {
+            savedPrice.add(result.getSavedPrice());
+            return new SearchResponse(
+                    locationId,
+                    result.getUsedListingIds(),
+                    result.getTotalPrice()
+            );
+        }
+
+        return null;
+    }
+
+    /**
+     * Expand vehicle list to individual units for multi-space allocation.
+     */
+    private List<NormalizedVehicle> expandVehicleList(List<NormalizedVehicle> vehicles) {
+        List<NormalizedVehicle> expanded = new ArrayList<>();
+
+        for (NormalizedVehicle vehicle : vehicles) {
+            for (int i = 0; i < vehicle.getQuantity(); i++) {
+                expanded.add(new NormalizedVehicle(
+                        vehicle.getLength(),
+                        vehicle.getWidth(),
+                        1,
+                        vehicle.getArea()
+                ));
+            }
+        }
+
+        expanded.sort(Comparator.comparingInt(NormalizedVehicle::getArea).reversed());
+        return expanded;
+    }
+}
\ No newline at end of file
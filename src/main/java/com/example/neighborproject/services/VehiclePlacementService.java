@@ -3,6 +3,7 @@ package com.example.neighborproject.services;
 import com.example.neighborproject.models.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -15,25 +16,54 @@ import java.util.*;
 public class VehiclePlacementService {
     private static final Logger log = LoggerFactory.getLogger(VehiclePlacementService.class);
 
+    @Value("${placement.improvement.time-limit-ms:5}")
+    private long improvementTimeLimitMs;
+
+    // Grids reused across searches on the same worker thread instead of reallocated per listing
+    private static final ThreadLocal<PackingGridPool> GRID_POOL = ThreadLocal.withInitial(PackingGridPool::new);
+
+    private static final ThreadLocal<LocalSearchScratch> LOCAL_SEARCH_SCRATCH =
+            ThreadLocal.withInitial(LocalSearchScratch::new);
 
     public boolean canFitAllVehicles(Listing listing, List<NormalizedVehicle> vehicles) {
         // Create a grid representation of the space
-        int gridLength = listing.getLength() / 10;
-        int gridWidth = listing.getWidth() / 10;
+        return canFitAllVehicles(listing.getLength() / 10, listing.getWidth() / 10, vehicles);
+    }
 
-        PackingGrid grid = new PackingGrid(gridLength, gridWidth);
+    /**
+     * Checks whether the vehicles fit together in an empty space of the given grid size.
+     */
+    public boolean canFitAllVehicles(int gridLength, int gridWidth, List<NormalizedVehicle> vehicles) {
+        // Reject on total area before touching a grid
+        int requiredArea = 0;
+        for (int v = 0; v < vehicles.size(); v++) {
+            NormalizedVehicle vehicle = vehicles.get(v);
+            requiredArea += vehicle.getArea() * vehicle.getQuantity();
+        }
+        if (requiredArea > gridLength * gridWidth) {
+            return false;
+        }
 
-        // Try to place each vehicle
-        for (NormalizedVehicle vehicle : vehicles) {
-            for (int i = 0; i < vehicle.getQuantity(); i++) {
-                boolean placed = tryPlaceVehicleWithRotation(grid, vehicle);
-                if (!placed) {
-                    return false; // Failed to place one vehicle - solution not feasible
+        PackingGridPool pool = GRID_POOL.get();
+        int mark = pool.size();
+        PackingGrid grid = pool.acquire(gridLength, gridWidth);
+
+        try {
+            // Try to place each vehicle
+            for (int v = 0; v < vehicles.size(); v++) {
+                NormalizedVehicle vehicle = vehicles.get(v);
+                for (int i = 0; i < vehicle.getQuantity(); i++) {
+                    boolean placed = tryPlaceVehicleWithRotation(grid, vehicle);
+                    if (!placed) {
+                        return false; // Failed to place one vehicle - solution not feasible
+                    }
                 }
             }
-        }
 
-        return true; // All vehicles successfully placed
+            return true; // All vehicles successfully placed
+        } finally {
+            pool.release(mark);
+        }
     }
 
 
@@ -60,49 +90,64 @@ public class VehiclePlacementService {
         int gridLength = grid.getLength();
         int gridWidth = grid.getWidth();
 
-        // Create a list of potential positions (x, y) sorted by bottom-left preference
-        List<Location> locations = new ArrayList<>();
-
+        // Scan positions by y first (bottom), then by x (left)
         for (int y = 0; y <= gridWidth - itemWidth; y++) {
             for (int x = 0; x <= gridLength - itemLength; x++) {
-                locations.add(new Location(x, y));
+                if (grid.canPlace(x, y, itemLength, itemWidth)) {
+                    grid.place(x, y, itemLength, itemWidth);
+                    return true;
+                }
             }
         }
 
-        // Sort positions by y first (bottom), then by x (left)
-        locations.sort(Comparator.comparingInt(Location::getY)
-                .thenComparingInt(Location::getX));
-
-        // Try each position in the sorted order
-        for (Location pos : locations) {
-            int x = pos.getX();
-            int y = pos.getY();
+        return false;
+    }
 
-            if (grid.canPlace(x, y, itemLength, itemWidth)) {
-                grid.place(x, y, itemLength, itemWidth);
-                return true;
-            }
-        }
+    /**
+     * Whether a vehicle fits an empty listing in either orientation.
+     * Equivalent to a placement attempt on a fresh grid, without needing one.
+     */
+    boolean fitsEmptyListing(int gridLength, int gridWidth, NormalizedVehicle vehicle) {
+        int vLength = vehicle.getLength();
+        int vWidth = vehicle.getWidth();
 
-        return false;
+        return (vLength <= gridLength && vWidth <= gridWidth)
+                || (vWidth <= gridLength && vLength <= gridWidth);
     }
 
 
     public OptimalPackingResult findOptimalPacking(List<Listing> listings,
                                                    List<NormalizedVehicle> vehicles) {
-        Map<String, PackingGrid> usedListings = new LinkedHashMap<>();
+        PackingGridPool pool = GRID_POOL.get();
+        int mark = pool.size();
+
+        try {
+            return findOptimalPacking(listings, vehicles, pool, mark);
+        } finally {
+            pool.release(mark);
+        }
+    }
+
+    /**
+     * Greedy packing where the grids of used listings occupy pool slots from {@code mark}
+     * onwards, in the same order as {@code usedListingIds}.
+     */
+    private OptimalPackingResult findOptimalPacking(List<Listing> listings,
+                                                    List<NormalizedVehicle> vehicles,
+                                                    PackingGridPool pool,
+                                                    int mark) {
         int totalPrice = 0;
         List<String> usedListingIds = new ArrayList<>();
 
-        for (NormalizedVehicle vehicle : vehicles) {
+        for (int v = 0; v < vehicles.size(); v++) {
+            NormalizedVehicle vehicle = vehicles.get(v);
+
             // First try to place in existing spaces
             boolean placed = false;
 
             // then try existing used spaces first
-            for (Map.Entry<String, PackingGrid> entry : usedListings.entrySet()) {
-                PackingGrid grid = entry.getValue();
-
-                if (tryPlaceVehicleWithRotation(grid, vehicle)) {
+            for (int g = mark; g < pool.size(); g++) {
+                if (tryPlaceVehicleWithRotation(pool.get(g), vehicle)) {
                     placed = true;
                     break;
                 }
@@ -111,24 +156,27 @@ public class VehiclePlacementService {
             // If not placed, try new space
             if (!placed) {
                 // Try each available listing
-                for (Listing listing : listings) {
-                    // Skip if already using this listing
-                    if (usedListings.containsKey(listing.getId())) {
+                for (int l = 0; l < listings.size(); l++) {
+                    Listing listing = listings.get(l);
+                    int gridLength = listing.getLength() / 10;
+                    int gridWidth = listing.getWidth() / 10;
+
+                    // Only take a grid once the vehicle is known to fit the empty space
+                    if (!fitsEmptyListing(gridLength, gridWidth, vehicle)) {
                         continue;
                     }
 
-                    int gridLength = listing.getLength() / 10;
-                    int gridWidth = listing.getWidth() / 10;
-                    PackingGrid grid = new PackingGrid(gridLength, gridWidth);
-
-                    // Try to place the vehicle in this new space
-                    if (tryPlaceVehicleWithRotation(grid, vehicle)) {
-                        usedListings.put(listing.getId(), grid);
-                        usedListingIds.add(listing.getId());
-                        totalPrice += listing.getPriceInCents();
-                        placed = true;
-                        break;
+                    // Skip if already using this listing
+                    if (usedListingIds.contains(listing.getId())) {
+                        continue;
                     }
+
+                    PackingGrid grid = pool.acquire(gridLength, gridWidth);
+                    tryPlaceVehicleWithRotation(grid, vehicle);
+                    usedListingIds.add(listing.getId());
+                    totalPrice += listing.getPriceInCents();
+                    placed = true;
+                    break;
                 }
             }
 
@@ -137,10 +185,274 @@ public class VehiclePlacementService {
             }
         }
 
-        if (usedListings.isEmpty()) {
+        if (usedListingIds.isEmpty()) {
             return null;
         }
 
         return new OptimalPackingResult(usedListingIds, totalPrice);
     }
-}
\ No newline at end of file
+
+
+    /**
+     * Anytime local search over a greedy packing. Starting from {@code initial}, repeatedly
+     * looks for a cheaper set of listings that still fits every vehicle by dropping a listing,
+     * swapping one for a cheaper unused listing, or merging two listings into one unused listing.
+     * Stops at a local optimum or when the configured time limit runs out, and always returns
+     * the best valid answer found so far.
+     */
+    public OptimalPackingResult improvePacking(List<Listing> listings,
+                                               List<NormalizedVehicle> vehicles,
+                                               OptimalPackingResult initial) {
+        if (improvementTimeLimitMs <= 0) {
+            return initial;
+        }
+
+        return improvePacking(listings, vehicles, initial, System.nanoTime() + improvementTimeLimitMs * 1_000_000L);
+    }
+
+    /**
+     * Same as {@link #improvePacking(List, List, OptimalPackingResult)} with an explicit
+     * {@link System#nanoTime()} deadline. Returns {@code initial} itself when nothing cheaper is found in time.
+     */
+    public OptimalPackingResult improvePacking(List<Listing> listings,
+                                               List<NormalizedVehicle> vehicles,
+                                               OptimalPackingResult initial,
+                                               long deadline) {
+        if (initial == null) {
+            return initial;
+        }
+
+        int listingCount = listings.size();
+        List<String> initialIds = initial.getUsedListingIds();
+        if (initialIds.size() > listingCount) {
+            return initial;
+        }
+
+        // Listing sets are tracked as positions in `listings`, in per-thread buffers
+        LocalSearchScratch scratch = LOCAL_SEARCH_SCRATCH.get();
+        scratch.ensureCapacity(listingCount);
+        int[] current = scratch.current;
+        boolean[] used = scratch.used;
+
+        Arrays.fill(used, 0, listingCount, false);
+        int count = 0;
+        for (int k = 0; k < initialIds.size(); k++) {
+            int index = indexOf(listings, initialIds.get(k));
+            if (index < 0 || used[index]) {
+                return initial;
+            }
+            current[count++] = index;
+            used[index] = true;
+        }
+
+        // Positions by ascending price; locations hold a handful of listings, so insertion sort
+        int[] byPrice = scratch.byPrice;
+        for (int i = 0; i < listingCount; i++) {
+            int index = i;
+            int price = listings.get(index).getPriceInCents();
+            int j = i - 1;
+            while (j >= 0 && listings.get(byPrice[j]).getPriceInCents() > price) {
+                byPrice[j + 1] = byPrice[j];
+                j--;
+            }
+            byPrice[j + 1] = index;
+        }
+
+        int currentPrice = initial.getTotalPrice();
+
+        while (System.nanoTime() < deadline) {
+            int nextCount = findImprovingMove(listings, vehicles, scratch, count, deadline);
+            if (nextCount < 0) {
+                break;
+            }
+
+            System.arraycopy(scratch.candidate, 0, current, 0, nextCount);
+            count = nextCount;
+
+            Arrays.fill(used, 0, listingCount, false);
+            currentPrice = 0;
+            for (int k = 0; k < count; k++) {
+                used[current[k]] = true;
+                currentPrice += listings.get(current[k]).getPriceInCents();
+            }
+        }
+
+        if (currentPrice >= initial.getTotalPrice()) {
+            return initial;
+        }
+
+        List<String> usedListingIds = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            usedListingIds.add(listings.get(current[k]).getId());
+        }
+
+        return new OptimalPackingResult(usedListingIds, currentPrice, initial.getTotalPrice() - currentPrice);
+    }
+
+    /**
+     * Writes the first cheaper listing set reachable by a single drop, swap or merge move
+     * into {@code scratch.candidate} and returns its size, or -1 when none exists or the
+     * deadline passes.
+     */
+    private int findImprovingMove(List<Listing> listings,
+                                  List<NormalizedVehicle> vehicles,
+                                  LocalSearchScratch scratch,
+                                  int count,
+                                  long deadline) {
+        int[] current = scratch.current;
+        int[] candidate = scratch.candidate;
+        int[] byPrice = scratch.byPrice;
+        boolean[] used = scratch.used;
+        int listingCount = listings.size();
+
+        // Drop: try removing the most expensive listings first
+        for (int p = listingCount - 1; p >= 0 && count > 1; p--) {
+            int dropped = byPrice[p];
+            if (!used[dropped]) {
+                continue;
+            }
+            if (System.nanoTime() >= deadline) {
+                return -1;
+            }
+
+            int size = 0;
+            for (int k = 0; k < count; k++) {
+                if (current[k] != dropped) {
+                    candidate[size++] = current[k];
+                }
+            }
+            if (canFitAllVehicles(listings, candidate, size, vehicles)) {
+                return size;
+            }
+        }
+
+        // Swap: replace one listing with a cheaper unused one and re-pack
+        for (int p = listingCount - 1; p >= 0; p--) {
+            int replaced = byPrice[p];
+            if (!used[replaced]) {
+                continue;
+            }
+
+            for (int q = 0; q < listingCount; q++) {
+                int replacement = byPrice[q];
+                if (used[replacement]) {
+                    continue;
+                }
+                if (listings.get(replacement).getPriceInCents() >= listings.get(replaced).getPriceInCents()) {
+                    break;
+                }
+                if (System.nanoTime() >= deadline) {
+                    return -1;
+                }
+
+                for (int k = 0; k < count; k++) {
+                    candidate[k] = current[k] == replaced ? replacement : current[k];
+                }
+                if (canFitAllVehicles(listings, candidate, count, vehicles)) {
+                    return count;
+                }
+            }
+        }
+
+        // Merge: replace two listings with a single unused one cheaper than both together
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) {
+                int pairPrice = listings.get(current[i]).getPriceInCents()
+                        + listings.get(current[j]).getPriceInCents();
+
+                for (int q = 0; q < listingCount; q++) {
+                    int replacement = byPrice[q];
+                    if (used[replacement]) {
+                        continue;
+                    }
+                    if (listings.get(replacement).getPriceInCents() >= pairPrice) {
+                        break;
+                    }
+                    if (System.nanoTime() >= deadline) {
+                        return -1;
+                    }
+
+                    int size = 0;
+                    for (int k = 0; k < count; k++) {
+                        if (k != i && k != j) {
+                            candidate[size++] = current[k];
+                        }
+                    }
+                    candidate[size++] = replacement;
+                    if (canFitAllVehicles(listings, candidate, size, vehicles)) {
+                        return size;
+                    }
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Checks whether the vehicles can be packed into the listings at the given positions,
+     * filling each listing in order before moving on to the next.
+     */
+    private boolean canFitAllVehicles(List<Listing> listings,
+                                      int[] positions,
+                                      int count,
+                                      List<NormalizedVehicle> vehicles) {
+        PackingGridPool pool = GRID_POOL.get();
+        int mark = pool.size();
+
+        try {
+            for (int k = 0; k < count; k++) {
+                Listing listing = listings.get(positions[k]);
+                pool.acquire(listing.getLength() / 10, listing.getWidth() / 10);
+            }
+
+            for (int v = 0; v < vehicles.size(); v++) {
+                NormalizedVehicle vehicle = vehicles.get(v);
+                for (int i = 0; i < vehicle.getQuantity(); i++) {
+                    boolean placed = false;
+                    for (int g = mark; g < pool.size(); g++) {
+                        if (tryPlaceVehicleWithRotation(pool.get(g), vehicle)) {
+                            placed = true;
+                            break;
+                        }
+                    }
+                    if (!placed) {
+                        return false;
+                    }
+                }
+            }
+
+            return true;
+        } finally {
+            pool.release(mark);
+        }
+    }
+
+    private int indexOf(List<Listing> listings, String id) {
+        for (int i = 0; i < listings.size(); i++) {
+            if (listings.get(i).getId().equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Per-thread buffers for local search, grown to the largest location seen.
+     */
+    private static final class LocalSearchScratch {
+        private int[] current = new int[0];
+        private int[] candidate = new int[0];
+        private int[] byPrice = new int[0];
+        private boolean[] used = new boolean[0];
+
+        private void ensureCapacity(int listingCount) {
+            if (current.length < listingCount) {
+                current = new int[listingCount];
+                candidate = new int[listingCount];
+                byPrice = new int[listingCount];
+                used = new boolean[listingCount];
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.neighborproject.tools;
+
+import com.example.neighborproject.NeighborProjectApplication;
+import com.example.neighborproject.models.SlowSearchRecord;
+import com.example.neighborproject.services.ListingService;
+import com.example.neighborproject.services.SlowSearchLogService;
+import com.example.neighborproject.services.SpaceSearchService;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Command-line tool re-running searches captured in the slow-search log against a
+ * listings file and comparing the captured timings with the local ones. Each capture is
+ * flagged when it ran against different listings than the file being replayed.
+ *
+ * <p>Usage: {@code SlowSearchReplayTool <slow-searches.jsonl> <listings.json> [runs]}
+ */
+public class SlowSearchReplayTool {
+
+    private static final int DEFAULT_RUNS = 3;
+
+    // Captured locations shown per search, slowest first
+    private static final int LOCATIONS_SHOWN = 5;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: SlowSearchReplayTool <slow-searches.jsonl> <listings.json> [runs]");
+            System.exit(1);
+        }
+
+        List<SlowSearchRecord> records = SlowSearchLogService.readRecords(new File(args[0]));
+        String listingsPath = new File(args[1]).getAbsolutePath();
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_RUNS;
+
+        // Command-line style properties so they take precedence over application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(NeighborProjectApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run("--listings.file.path=" + listingsPath,
+                        "--search.warmup.enabled=false",
+                        "--search.slow-log.enabled=false",
+                        "--logging.level.root=WARN");
+
+        try {
+            SpaceSearchService searchService = context.getBean(SpaceSearchService.class);
+            String listingsFileHash = context.getBean(ListingService.class).getListingsFileHash();
+
+            System.out.printf("Replaying %d captured searches against %s, best of %d runs%n",
+                    records.size(), listingsPath, runs);
+
+            for (int i = 0; i < records.size(); i++) {
+                replay(i + 1, records.get(i), searchService, listingsFileHash, runs);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void replay(int number,
+                               SlowSearchRecord record,
+                               SpaceSearchService searchService,
+                               String listingsFileHash,
+                               int runs) {
+        long bestTotalNanos = Long.MAX_VALUE;
+        Map<String, Long> bestLocationNanos = new HashMap<>();
+
+        for (int run = 0; run < runs; run++) {
+            Map<String, Long> locationNanos = new ConcurrentHashMap<>();
+            long start = System.nanoTime();
+            searchService.search(record.getRequest(), locationNanos);
+            bestTotalNanos = Math.min(bestTotalNanos, System.nanoTime() - start);
+
+            for (Map.Entry<String, Long> entry : locationNanos.entrySet()) {
+                bestLocationNanos.merge(entry.getKey(), entry.getValue(), Math::min);
+            }
+        }
+
+        double capturedMs = record.getTotalMicros() / 1_000.0;
+        double replayedMs = bestTotalNanos / 1_000_000.0;
+
+        System.out.printf("%n#%d %s (%s)%n", number, record.getRequest(), describeListings(record, listingsFileHash));
+        System.out.printf("  total      captured %10.1f ms   replayed %10.1f ms   %5.2fx%n",
+                capturedMs, replayedMs, replayedMs / capturedMs);
+
+        record.getLocationMicros().entrySet().stream()
+                .limit(LOCATIONS_SHOWN)
+                .forEach(entry -> {
+                    Long replayedNanos = bestLocationNanos.get(entry.getKey());
+                    System.out.printf("  %s   captured %10.1f ms   replayed %s%n",
+                            entry.getKey(),
+                            entry.getValue() / 1_000.0,
+                            replayedNanos == null
+                                    ? "  (not in listings)"
+                                    : String.format("%10.1f ms", replayedNanos / 1_000_000.0));
+                });
+    }
+
+    private static String describeListings(SlowSearchRecord record, String listingsFileHash) {
+        if (record.getListingsFileHash() == null) {
+            return "listings unknown";
+        }
+        if (!record.getListingsFileHash().equals(listingsFileHash)) {
+            return "captured on different listings " + record.getListingsFileHash().substring(0, Math.min(12, record.getListingsFileHash().length()));
+        }
+        if (record.getListingWritesSinceLoad() > 0) {
+            return "same listings file, plus " + record.getListingWritesSinceLoad() + " listing writes";
+        }
+        return "same listings";
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.neighborproject.services;
+
+import com.example.neighborproject.models.Listing;
+import com.example.neighborproject.models.NormalizedVehicle;
+import com.example.neighborproject.models.OptimalPackingResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.example.neighborproject.services.TestFixtures.expand;
+import static com.example.neighborproject.services.TestFixtures.listing;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the cheapest-cover dynamic program over listing shapes.
+ */
+class CheapestCoverServiceTest {
+
+    private final VehiclePlacementService placementService = new VehiclePlacementService();
+    private final CheapestCoverService coverService = new CheapestCoverService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(coverService, "placementService", placementService);
+        ReflectionTestUtils.setField(coverService, "maxStates", 20_000);
+        ReflectionTestUtils.setField(coverService, "maxCells", 1_000_000);
+        ReflectionTestUtils.setField(coverService, "maxOperations", 5_000_000L);
+        ReflectionTestUtils.setField(coverService, "maxRequestOperations", 5_000_000L);
+    }
+
+    @Test
+    void cheapestCoverBeatsGreedyPacking() {
+        // Greedy fills the two cheap single spaces first and then still needs the large one
+        List<Listing> listings = List.of(
+                listing("single-a", 20, 10, 60),
+                listing("single-b", 20, 10, 61),
+                listing("triple", 20, 30, 200));
+        List<NormalizedVehicle> fleet = List.of(vehicle(2, 4));
+
+        OptimalPackingResult greedy = placementService.findOptimalPacking(listings, expand(fleet));
+        OptimalPackingResult cover = coverService.findCheapestCover(listings, coverService.newDemand(fleet)).getPacking();
+
+        assertEquals(321, greedy.getTotalPrice());
+        assertEquals(260, cover.getTotalPrice());
+        assertEquals(Set.of("single-a", "triple"), new HashSet<>(cover.getUsedListingIds()));
+    }
+
+    @Test
+    void returnedListingsCostTheReportedTotal() {
+        List<Listing> listings = List.of(
+                listing("a", 20, 10, 90),
+                listing("b", 40, 10, 150),
+                listing("c", 40, 20, 260),
+                listing("d", 30, 10, 100),
+                listing("e", 40, 10, 140),
+                listing("f", 20, 20, 170));
+        List<NormalizedVehicle> fleet = List.of(vehicle(4, 2), vehicle(2, 3), vehicle(3, 1));
+
+        OptimalPackingResult cover = coverService.findCheapestCover(listings, coverService.newDemand(fleet)).getPacking();
+
+        Map<String, Listing> byId = listings.stream().collect(Collectors.toMap(Listing::getId, Function.identity()));
+        int price = cover.getUsedListingIds().stream().mapToInt(id -> byId.get(id).getPriceInCents()).sum();
+        assertEquals(cover.getTotalPrice(), price);
+        assertEquals(cover.getUsedListingIds().size(), new HashSet<>(cover.getUsedListingIds()).size());
+
+        OptimalPackingResult greedy = placementService.findOptimalPacking(listings, expand(fleet));
+        assertTrue(cover.getTotalPrice() <= greedy.getTotalPrice());
+    }
+
+    @Test
+    void locationThatCannotHoldTheFleetIsInfeasible() {
+        List<Listing> listings = List.of(listing("a", 20, 10, 60), listing("b", 20, 10, 70));
+
+        assertStatus(CoverResult.Status.INFEASIBLE, listings, List.of(vehicle(2, 3)));
+        assertStatus(CoverResult.Status.INFEASIBLE, listings, List.of(vehicle(4, 1)));
+    }
+
+    @Test
+    void fleetOverMaxStatesFallsBack() {
+        ReflectionTestUtils.setField(coverService, "maxStates", 10);
+        List<Listing> listings = List.of(listing("a", 200, 10, 60));
+
+        assertStatus(CoverResult.Status.GAVE_UP, listings, List.of(vehicle(2, 10)));
+    }
+
+    @Test
+    void hugeFleetIsMarkedTooLargeWithoutOverflow() {
+        List<NormalizedVehicle> fleet = List.of(
+                vehicle(1, 100_000), vehicle(2, 100_000), vehicle(3, 100_000), vehicle(4, 100_000), vehicle(5, 100_000));
+
+        CoverDemand demand = coverService.newDemand(fleet);
+
+        assertTrue(demand.isTooLarge());
+        assertEquals(CoverResult.Status.GAVE_UP,
+                coverService.findCheapestCover(List.of(listing("a", 50, 10, 60)), demand).getStatus());
+    }
+
+    @Test
+    void workOverBudgetFallsBack() {
+        ReflectionTestUtils.setField(coverService, "maxOperations", 5L);
+        List<Listing> listings = List.of(listing("a", 20, 10, 60), listing("b", 20, 10, 70));
+
+        assertStatus(CoverResult.Status.GAVE_UP, listings, List.of(vehicle(2, 2)));
+    }
+
+    @Test
+    void locationsShareTheRequestBudget() {
+        List<Listing> listings = List.of(listing("a", 20, 10, 60), listing("b", 20, 10, 70));
+        List<NormalizedVehicle> fleet = List.of(vehicle(2, 2));
+
+        // Measure one solve, then allow a request only that much work
+        CoverDemand measured = coverService.newDemand(fleet);
+        assertEquals(CoverResult.Status.FOUND, coverService.findCheapestCover(listings, measured).getStatus());
+        long perLocation = 5_000_000L - measured.getRemainingOperations();
+        ReflectionTestUtils.setField(coverService, "maxRequestOperations", perLocation);
+
+        CoverDemand demand = coverService.newDemand(fleet);
+
+        assertEquals(CoverResult.Status.FOUND, coverService.findCheapestCover(listings, demand).getStatus());
+        assertEquals(CoverResult.Status.GAVE_UP, coverService.findCheapestCover(listings, demand).getStatus());
+    }
+
+    @Test
+    void estimateOverBudgetGivesUpBeforeEnumerating() {
+        // Three listings of one shape, two types over a 3 x 3 state space: at least 54 operations
+        ReflectionTestUtils.setField(coverService, "maxOperations", 50L);
+        List<Listing> listings = List.of(listing("a", 40, 10, 60), listing("b", 40, 10, 70), listing("c", 40, 10, 80));
+        CoverDemand demand = coverService.newDemand(List.of(vehicle(2, 2), vehicle(1, 2)));
+
+        assertEquals(CoverResult.Status.GAVE_UP, coverService.findCheapestCover(listings, demand).getStatus());
+        assertTrue(demand.getPatternsByShape().isEmpty());
+        assertEquals(5_000_000L, demand.getRemainingOperations());
+    }
+
+    @Test
+    void listingsTooSmallForAnyVehicleAreInfeasibleWithoutBudget() {
+        ReflectionTestUtils.setField(coverService, "maxRequestOperations", 0L);
+        List<Listing> listings = List.of(listing("a", 10, 10, 60));
+
+        assertStatus(CoverResult.Status.INFEASIBLE, listings, List.of(vehicle(2, 1)));
+    }
+
+    private void assertStatus(CoverResult.Status expected, List<Listing> listings, List<NormalizedVehicle> fleet) {
+        CoverResult result = coverService.findCheapestCover(listings, coverService.newDemand(fleet));
+
+        assertEquals(expected, result.getStatus());
+        assertNull(result.getPacking());
+    }
+
+    private static NormalizedVehicle vehicle(int length, int quantity) {
+        return new NormalizedVehicle(length, 1, quantity, length);
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.neighborproject.services;
+
+import com.example.neighborproject.models.Listing;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.example.neighborproject.services.TestFixtures.listing;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for incremental listing writes and the price-sorted per-location lists.
+ */
+class ListingServiceTest {
+
+    private final ListingService listingService = new ListingService();
+
+    @Test
+    void upsertKeepsPriceOrderWithTiesInInsertionOrder() {
+        listingService.upsertListing(listing("b", "loc", 200));
+        listingService.upsertListing(listing("a", "loc", 100));
+        listingService.upsertListing(listing("tie-1", "loc", 150));
+        listingService.upsertListing(listing("tie-2", "loc", 150));
+        listingService.upsertListing(listing("c", "loc", 300));
+
+        assertEquals(List.of("a", "tie-1", "tie-2", "b", "c"), ids(listingService.getListingsByLocationId("loc")));
+    }
+
+    @Test
+    void loadKeepsTiesInFileOrder(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("listings.json");
+        Files.writeString(file, """
+                [
+                  {"id": "x", "length": 10, "width": 10, "location_id": "loc", "price_in_cents": 150},
+                  {"id": "y", "length": 10, "width": 10, "location_id": "loc", "price_in_cents": 100},
+                  {"id": "z", "length": 10, "width": 10, "location_id": "loc", "price_in_cents": 150}
+                ]
+                """);
+        ReflectionTestUtils.setField(listingService, "listingsFilePath", file.toString());
+
+        listingService.loadListings();
+
+        assertEquals(List.of("y", "x", "z"), ids(listingService.getListingsByLocationId("loc")));
+    }
+
+    @Test
+    void updateWithinLocationReplacesAndResorts() {
+        listingService.upsertListing(listing("a", "loc", 100));
+        listingService.upsertListing(listing("b", "loc", 200));
+
+        Listing previous = listingService.upsertListing(listing("a", "loc", 300)).orElseThrow();
+
+        assertEquals(100, previous.getPriceInCents());
+        assertEquals(List.of("b", "a"), ids(listingService.getListingsByLocationId("loc")));
+        assertEquals(300, listingService.getListingById("a").orElseThrow().getPriceInCents());
+    }
+
+    @Test
+    void moveBetweenLocationsLeavesOldLocation() {
+        listingService.upsertListing(listing("a", "old", 100));
+        listingService.upsertListing(listing("b", "old", 200));
+
+        listingService.upsertListing(listing("a", "new", 100));
+
+        assertEquals(List.of("b"), ids(listingService.getListingsByLocationId("old")));
+        assertEquals(List.of("a"), ids(listingService.getListingsByLocationId("new")));
+        assertEquals("new", listingService.getListingById("a").orElseThrow().getLocationId());
+    }
+
+    @Test
+    void removingLastListingDropsLocation() {
+        listingService.upsertListing(listing("a", "loc", 100));
+
+        assertTrue(listingService.removeListing("a").isPresent());
+
+        assertFalse(listingService.getListingsByLocation().containsKey("loc"));
+        assertTrue(listingService.getListingById("a").isEmpty());
+        assertTrue(listingService.removeListing("a").isEmpty());
+    }
+
+    @Test
+    void everyWriteBumpsSnapshotVersion() {
+        long initial = listingService.getSnapshotVersion();
+
+        listingService.upsertListing(listing("a", "loc", 100));
+        long afterInsert = listingService.getSnapshotVersion();
+        listingService.upsertListing(listing("a", "other", 100));
+        long afterMove = listingService.getSnapshotVersion();
+        listingService.removeListing("a");
+        long afterRemove = listingService.getSnapshotVersion();
+        listingService.removeListing("missing");
+
+        assertTrue(initial < afterInsert);
+        assertTrue(afterInsert < afterMove);
+        assertTrue(afterMove < afterRemove);
+        assertEquals(afterRemove, listingService.getSnapshotVersion());
+    }
+
+    @Test
+    void listingsFileHashIdentifiesContentAcrossInstances(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("listings.json");
+        Files.writeString(file, """
+                [{"id": "x", "length": 10, "width": 10, "location_id": "loc", "price_in_cents": 150}]
+                """);
+        ReflectionTestUtils.setField(listingService, "listingsFilePath", file.toString());
+        ListingService restarted = new ListingService();
+        ReflectionTestUtils.setField(restarted, "listingsFilePath", file.toString());
+
+        listingService.loadListings();
+        listingService.upsertListing(listing("a", "loc", 100));
+        restarted.loadListings();
+
+        assertEquals(64, listingService.getListingsFileHash().length());
+        assertEquals(listingService.getListingsFileHash(), restarted.getListingsFileHash());
+        assertEquals(1, listingService.getWritesSinceLoad());
+        assertEquals(0, restarted.getWritesSinceLoad());
+
+        Files.writeString(file, "[]");
+        listingService.loadListings();
+
+        assertNotEquals(restarted.getListingsFileHash(), listingService.getListingsFileHash());
+        assertEquals(0, listingService.getWritesSinceLoad());
+    }
+
+    @Test
+    void readersNeverSeeMovingListingTwiceOrMissing() throws InterruptedException {
+        listingService.upsertListing(listing("moving", "east", 100));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            while (running.get() && failure.get() == null) {
+                long count = listingService.getListingsByLocation().values().stream()
+                        .flatMap(List::stream)
+                        .filter(listing -> listing.getId().equals("moving"))
+                        .count();
+                if (count != 1) {
+                    failure.set("Saw the moving listing " + count + " times");
+                }
+            }
+        });
+        reader.start();
+
+        for (int i = 0; i < 20_000 && failure.get() == null; i++) {
+            listingService.upsertListing(listing("moving", i % 2 == 0 ? "west" : "east", 100));
+        }
+        running.set(false);
+        reader.join();
+
+        assertNull(failure.get());
+    }
+
+    @Test
+    void readersNeverSeeEmptyListingsDuringReload(@TempDir Path dir) throws Exception {
+        // Enough listings that a reload takes a while, with the watched one last
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 5_000; i++) {
+            json.append(String.format(
+                    "{\"id\": \"%d\", \"length\": 10, \"width\": 10, \"location_id\": \"loc-%d\", \"price_in_cents\": 100},",
+                    i, i % 100));
+        }
+        json.append("{\"id\": \"x\", \"length\": 10, \"width\": 10, \"location_id\": \"loc\", \"price_in_cents\": 150}]");
+        Path file = dir.resolve("listings.json");
+        Files.writeString(file, json);
+        ReflectionTestUtils.setField(listingService, "listingsFilePath", file.toString());
+        listingService.loadListings();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            while (running.get() && failure.get() == null) {
+                if (listingService.getListingById("x").isEmpty()
+                        || listingService.getListingsByLocationId("loc").isEmpty()
+                        || !listingService.getListingsByLocation().containsKey("loc")) {
+                    failure.set("Saw listings missing during reload");
+                }
+            }
+        });
+        reader.start();
+
+        for (int i = 0; i < 50 && failure.get() == null; i++) {
+            listingService.loadListings();
+        }
+        running.set(false);
+        reader.join();
+
+        assertNull(failure.get());
+    }
+
+    private static List<String> ids(List<Listing> listings) {
+        return listings.stream().map(Listing::getId).toList();
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.neighborproject.services;
+
+import com.example.neighborproject.models.SearchResponse;
+import com.example.neighborproject.models.VehicleRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for coalescing identical concurrent searches into one computation.
+ */
+class SearchCoalescingServiceTest {
+
+    private static final List<VehicleRequest> FLEET = List.of(new VehicleRequest(20, 2), new VehicleRequest(10, 1));
+
+    // Same fleet in a different order and split differently, so it has the same canonical form
+    private static final List<VehicleRequest> SAME_FLEET = List.of(
+            new VehicleRequest(10, 1), new VehicleRequest(20, 1), new VehicleRequest(20, 1));
+
+    private final BlockingSearchService searchService = new BlockingSearchService();
+    private final SearchCoalescingService coalescingService = new SearchCoalescingService();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(coalescingService, "listingService", new ListingService());
+        ReflectionTestUtils.setField(coalescingService, "searchService", searchService);
+        ReflectionTestUtils.setField(coalescingService, "timeoutMs", 5_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchService.release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalSearchesShareOneComputation() throws Exception {
+        List<SearchResponse> expected = List.of(new SearchResponse("location", List.of("listing"), 100));
+        searchService.result = () -> expected;
+
+        Future<List<SearchResponse>> leader = callers.submit(() -> coalescingService.search(FLEET));
+        assertTrue(searchService.started.await(5, TimeUnit.SECONDS));
+
+        List<Future<List<SearchResponse>>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(callers.submit(() -> coalescingService.search(SAME_FLEET)));
+        }
+        awaitCoalesced(5);
+
+        searchService.release.countDown();
+
+        assertEquals(expected, leader.get(5, TimeUnit.SECONDS));
+        for (Future<List<SearchResponse>> follower : followers) {
+            assertEquals(expected, follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, searchService.calls.get());
+        assertEquals(0, coalescingService.getInFlightSearchCount());
+    }
+
+    @Test
+    void leaderFailureReachesEveryWaiter() throws Exception {
+        IllegalStateException failure = new IllegalStateException("search failed");
+        searchService.result = () -> {
+            throw failure;
+        };
+
+        Future<List<SearchResponse>> leader = callers.submit(() -> coalescingService.search(FLEET));
+        assertTrue(searchService.started.await(5, TimeUnit.SECONDS));
+
+        List<Future<List<SearchResponse>>> followers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            followers.add(callers.submit(() -> coalescingService.search(FLEET)));
+        }
+        awaitCoalesced(3);
+
+        searchService.release.countDown();
+
+        ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertSame(failure, leaderError.getCause());
+        for (Future<List<SearchResponse>> follower : followers) {
+            ExecutionException error = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertSame(failure, error.getCause());
+        }
+        assertEquals(1, searchService.calls.get());
+        assertEquals(0, coalescingService.getInFlightSearchCount());
+    }
+
+    @Test
+    void timedOutWaiterLeavesNoInFlightEntry() throws Exception {
+        ReflectionTestUtils.setField(coalescingService, "timeoutMs", 50L);
+        searchService.result = List::of;
+
+        Future<List<SearchResponse>> leader = callers.submit(() -> coalescingService.search(FLEET));
+        assertTrue(searchService.started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(TimeoutException.class, () -> coalescingService.search(FLEET));
+        assertEquals(1, coalescingService.getInFlightSearchCount());
+
+        searchService.release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, coalescingService.getInFlightSearchCount());
+        assertEquals(1, searchService.calls.get());
+    }
+
+    @Test
+    void interruptedWaiterGetsUnavailableWithInterruptFlagSet() throws Exception {
+        searchService.result = List::of;
+
+        Future<List<SearchResponse>> leader = callers.submit(() -> coalescingService.search(FLEET));
+        assertTrue(searchService.started.await(5, TimeUnit.SECONDS));
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicBoolean interruptFlag = new AtomicBoolean();
+        Thread waiter = new Thread(() -> {
+            try {
+                coalescingService.search(FLEET);
+            } catch (Throwable e) {
+                failure.set(e);
+                interruptFlag.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        waiter.start();
+        awaitCoalesced(1);
+
+        waiter.interrupt();
+        waiter.join(5_000);
+
+        assertInstanceOf(SearchUnavailableException.class, failure.get());
+        assertInstanceOf(InterruptedException.class, failure.get().getCause());
+        assertTrue(interruptFlag.get());
+
+        searchService.release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+        assertEquals(0, coalescingService.getInFlightSearchCount());
+    }
+
+    private void awaitCoalesced(long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalescingService.getCoalescedSearchCount() < count) {
+            assertTrue(System.nanoTime() < deadline, "Callers did not join the in-flight search");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Search stub that blocks until released, so callers can pile up behind it.
+     */
+    private static class BlockingSearchService extends SpaceSearchService {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile Supplier<List<SearchResponse>> result;
+
+        @Override
+        public List<SearchResponse> search(List<VehicleRequest> vehicles) {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return result.get();
+        }
+    }
+}
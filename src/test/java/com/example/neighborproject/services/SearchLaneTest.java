@@ -0,0 +1,83 @@
+package com.example.neighborproject.services;
+
+import com.example.neighborproject.models.LaneMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for search lane admission: rejecting when full and bounded waits for overflow slots.
+ */
+class SearchLaneTest {
+
+    private final SearchLane lane = new SearchLane("test", 1, 1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        lane.shutdown();
+    }
+
+    @Test
+    void overflowUsesReservedSlotWhenLaneIsFull() throws Exception {
+        CompletableFuture<String> running = lane.submit(this::blocked);
+        CompletableFuture<String> queued = lane.submit(this::blocked);
+
+        assertThrows(RejectedExecutionException.class, () -> lane.submit(() -> "rejected"));
+
+        CompletableFuture<String> overflow = lane.submitWhenAvailable(() -> "overflow", 1, TimeUnit.SECONDS);
+
+        release.countDown();
+
+        assertEquals("done", running.get(5, TimeUnit.SECONDS));
+        assertEquals("done", queued.get(5, TimeUnit.SECONDS));
+        assertEquals("overflow", overflow.get(5, TimeUnit.SECONDS));
+
+        LaneMetrics metrics = lane.getMetrics();
+        assertEquals(1, metrics.getRejectedTasks());
+        assertEquals(1, metrics.getOverflowTasks());
+        assertEquals(0, metrics.getOverflowTimeouts());
+    }
+
+    @Test
+    void overflowTimesOutWhenReservedSlotsStayBusy() throws Exception {
+        CompletableFuture<String> overflow = lane.submitWhenAvailable(this::blocked, 1, TimeUnit.SECONDS);
+
+        assertThrows(TimeoutException.class,
+                () -> lane.submitWhenAvailable(() -> "late", 50, TimeUnit.MILLISECONDS));
+
+        // New work is still admitted through the regular slots
+        CompletableFuture<String> regular = lane.submit(() -> "regular");
+
+        release.countDown();
+
+        assertEquals("done", overflow.get(5, TimeUnit.SECONDS));
+        assertEquals("regular", regular.get(5, TimeUnit.SECONDS));
+        assertEquals(1, lane.getMetrics().getOverflowTimeouts());
+    }
+
+    @Test
+    void finishedTasksFreeTheirSlot() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            int task = i;
+            assertEquals(task, lane.submit(() -> task).get(5, TimeUnit.SECONDS));
+            assertEquals(task, lane.submitWhenAvailable(() -> task, 1, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(0, lane.getMetrics().getRejectedTasks());
+        assertEquals(0, lane.getMetrics().getOverflowTimeouts());
+    }
+
+    private String blocked() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.neighborproject.services;
+
+import com.example.neighborproject.models.Listing;
+import com.example.neighborproject.models.NormalizedVehicle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Listings and fleets shared by the service tests.
+ */
+final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    /**
+     * Listing of the given size at the default test location.
+     */
+    static Listing listing(String id, int length, int width, int priceInCents) {
+        return listing(id, length, width, "location", priceInCents);
+    }
+
+    /**
+     * Single-cell (10 x 10) listing at the given location.
+     */
+    static Listing listing(String id, String locationId, int priceInCents) {
+        return listing(id, 10, 10, locationId, priceInCents);
+    }
+
+    static Listing listing(String id, int length, int width, String locationId, int priceInCents) {
+        Listing listing = new Listing();
+        listing.setId(id);
+        listing.setLength(length);
+        listing.setWidth(width);
+        listing.setLocationId(locationId);
+        listing.setPriceInCents(priceInCents);
+        return listing;
+    }
+
+    /**
+     * One entry per vehicle, the form greedy packing and local search take.
+     */
+    static List<NormalizedVehicle> expand(List<NormalizedVehicle> fleet) {
+        List<NormalizedVehicle> units = new ArrayList<>();
+        for (NormalizedVehicle type : fleet) {
+            for (int i = 0; i < type.getQuantity(); i++) {
+                units.add(new NormalizedVehicle(type.getLength(), type.getWidth(), 1, type.getArea()));
+            }
+        }
+        return units;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.neighborproject.services;
+
+import com.example.neighborproject.models.Listing;
+import com.example.neighborproject.models.NormalizedVehicle;
+import com.example.neighborproject.models.OptimalPackingResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.neighborproject.services.TestFixtures.expand;
+import static com.example.neighborproject.services.TestFixtures.listing;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures heap allocation of the packing hot path (single-space checks, greedy
+ * multi-space packing and local search) once grids and scratch buffers are pooled.
+ * A steady-state search should allocate little beyond its result objects.
+ */
+class VehiclePlacementServiceAllocationTest {
+
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final int MEASURED_ROUNDS = 10_000;
+
+    // Greedy and improved results (id lists, arrays, OptimalPackingResult), with headroom for JIT variance
+    private static final long MAX_BYTES_PER_ROUND = 512;
+
+    private final VehiclePlacementService placementService = new VehiclePlacementService();
+
+    @Test
+    void steadyStateSearchAllocatesOnlyResults() {
+        // Generous budget so cold early rounds still reach the local optimum
+        ReflectionTestUtils.setField(placementService, "improvementTimeLimitMs", 1_000L);
+
+        List<Listing> listings = new ArrayList<>();
+        listings.add(listing("a", 20, 10, 1000));
+        listings.add(listing("b", 30, 20, 2500));
+        listings.add(listing("c", 40, 30, 4000));
+        listings.add(listing("d", 50, 50, 9000));
+        // Same shape as "c" but cheaper and last, so greedy misses it and local search swaps it in
+        listings.add(listing("e", 40, 30, 1500));
+
+        List<NormalizedVehicle> fleet = List.of(
+                new NormalizedVehicle(3, 1, 4, 3),
+                new NormalizedVehicle(2, 1, 3, 2));
+
+        List<NormalizedVehicle> individualVehicles = expand(fleet);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runRound(listings, fleet, individualVehicles);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            runRound(listings, fleet, individualVehicles);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        long bytesPerRound = allocated / MEASURED_ROUNDS;
+        assertTrue(bytesPerRound <= MAX_BYTES_PER_ROUND,
+                "Expected at most " + MAX_BYTES_PER_ROUND + " bytes per search but saw " + bytesPerRound);
+    }
+
+    private void runRound(List<Listing> listings,
+                          List<NormalizedVehicle> fleet,
+                          List<NormalizedVehicle> individualVehicles) {
+        for (Listing listing : listings) {
+            placementService.canFitAllVehicles(listing, fleet);
+        }
+
+        OptimalPackingResult result = placementService.findOptimalPacking(listings, individualVehicles);
+        assertNotNull(result);
+
+        OptimalPackingResult improved = placementService.improvePacking(listings, individualVehicles, result);
+        assertTrue(improved.getSavedPrice() > 0, "Local search should improve the greedy packing");
+    }
+}
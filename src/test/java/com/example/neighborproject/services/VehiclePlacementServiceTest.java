@@ -0,0 +1,80 @@
+package com.example.neighborproject.services;
+
+import com.example.neighborproject.models.Listing;
+import com.example.neighborproject.models.NormalizedVehicle;
+import com.example.neighborproject.models.OptimalPackingResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.example.neighborproject.services.TestFixtures.listing;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests for the local-search stage of multi-space packing.
+ */
+class VehiclePlacementServiceTest {
+
+    // A 20ft vehicle occupies a 2x1 block of grid cells
+    private static final NormalizedVehicle VEHICLE = new NormalizedVehicle(2, 1, 1, 2);
+
+    private static final long ONE_SECOND = 1_000_000_000L;
+
+    private final VehiclePlacementService placementService = new VehiclePlacementService();
+
+    @Test
+    void improvePackingDropsUnneededListing() {
+        Listing expensive = listing("expensive", 20, 10, 100);
+        Listing cheap = listing("cheap", 20, 10, 50);
+        OptimalPackingResult greedy = new OptimalPackingResult(List.of("expensive", "cheap"), 150);
+
+        OptimalPackingResult improved = placementService.improvePacking(
+                List.of(expensive, cheap), List.of(VEHICLE), greedy, System.nanoTime() + ONE_SECOND);
+
+        assertEquals(List.of("cheap"), improved.getUsedListingIds());
+        assertEquals(50, improved.getTotalPrice());
+        assertEquals(100, improved.getSavedPrice());
+    }
+
+    @Test
+    void improvePackingSwapsForCheaperListing() {
+        Listing used = listing("used", 20, 10, 100);
+        Listing cheaper = listing("cheaper", 20, 10, 40);
+        OptimalPackingResult greedy = new OptimalPackingResult(List.of("used"), 100);
+
+        OptimalPackingResult improved = placementService.improvePacking(
+                List.of(used, cheaper), List.of(VEHICLE), greedy, System.nanoTime() + ONE_SECOND);
+
+        assertEquals(List.of("cheaper"), improved.getUsedListingIds());
+        assertEquals(40, improved.getTotalPrice());
+        assertEquals(60, improved.getSavedPrice());
+    }
+
+    @Test
+    void improvePackingMergesTwoListingsIntoOne() {
+        Listing first = listing("first", 20, 10, 100);
+        Listing second = listing("second", 20, 10, 90);
+        Listing wide = listing("wide", 20, 20, 120);
+        OptimalPackingResult greedy = new OptimalPackingResult(List.of("first", "second"), 190);
+
+        OptimalPackingResult improved = placementService.improvePacking(
+                List.of(first, second, wide), List.of(VEHICLE, VEHICLE), greedy, System.nanoTime() + ONE_SECOND);
+
+        assertEquals(List.of("wide"), improved.getUsedListingIds());
+        assertEquals(120, improved.getTotalPrice());
+        assertEquals(70, improved.getSavedPrice());
+    }
+
+    @Test
+    void improvePackingReturnsGreedyInputWhenDeadlineHasPassed() {
+        Listing used = listing("used", 20, 10, 100);
+        Listing cheaper = listing("cheaper", 20, 10, 40);
+        OptimalPackingResult greedy = new OptimalPackingResult(List.of("used"), 100);
+
+        OptimalPackingResult improved = placementService.improvePacking(
+                List.of(used, cheaper), List.of(VEHICLE), greedy, System.nanoTime() - 1);
+
+        assertSame(greedy, improved);
+    }
+}